@@ -0,0 +1,93 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.writer.HWPXWriter;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.SyntheticHwpxDocuments;
+
+/**
+ * Benchmark inputs in four sizes. Every fixture is built from a fixed seed, so results are
+ * comparable between runs and machines.
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * @param pages Pages of body text
+     * @param tableRows Rows of the table document
+     * @param pictures Pictures of the picture document
+     */
+    public enum Size {
+        SMALL(5, 50, 5),
+        MEDIUM(100, 1_000, 40),
+        LARGE(500, 5_000, 100),
+        HUGE(1_000, 10_000, 200);
+
+        final int pages;
+        final int tableRows;
+        final int pictures;
+
+        Size(int pages, int tableRows, int pictures) {
+            this.pages = pages;
+            this.tableRows = tableRows;
+            this.pictures = pictures;
+        }
+    }
+
+    /**
+     * What a fixture document consists of
+     */
+    public enum Content {
+        TEXT, TABLE, PICTURES
+    }
+
+    private static final long SEED = 42L;
+    private static final int PARA_SHAPES = 200;
+    private static final int CHAR_SHAPES = 400;
+    private static final int TABLE_COLS = 8;
+    private static final int PICTURE_SIDE = 256;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static HWPXFile build(Size size, Content content) {
+        switch (content) {
+            case TABLE:
+                return SyntheticHwpxDocuments.buildTable(size.tableRows, TABLE_COLS, SEED);
+            case PICTURES:
+                return SyntheticHwpxDocuments.buildPictures(size.pictures, PICTURE_SIDE, SEED);
+            default:
+                return SyntheticHwpxDocuments.build(size.pages, PARA_SHAPES, CHAR_SHAPES, SEED);
+        }
+    }
+
+    /**
+     * Writes a fixture to an HWPX file in a new temporary directory
+     */
+    public static Path write(Size size, Content content) throws IOException {
+        Path dir = Files.createTempDirectory("hwpx-bench-");
+        Path file = dir.resolve(content.name().toLowerCase() + "-" + size.name().toLowerCase() + ".hwpx");
+        try {
+            HWPXWriter.toFilepath(build(size, content), file.toString());
+        } catch (Exception e) {
+            throw new IOException("Could not write fixture " + file, e);
+        }
+        return file;
+    }
+
+    /**
+     * Deletes a directory created by {@link #write} and everything in it
+     */
+    public static void delete(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.CharPr;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.ParaPr;
+import kr.dogfoot.hwpxlib.object.content.section_xml.SectionXMLFile;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Para;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Run;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.HeaderIndex;
+
+/**
+ * Resolves every paraPrIDRef and charPrIDRef of a document the way the converter used to
+ * (a scan of the header list per paragraph and run) and through the header index, including
+ * the time to build the index. LARGE is the 500-page document the index was introduced for
+ */
+@State(Scope.Benchmark)
+public class HeaderLookupBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE", "HUGE"})
+    private BenchmarkFixtures.Size size;
+
+    private HWPXFile document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = BenchmarkFixtures.build(size, BenchmarkFixtures.Content.TEXT);
+        int linear = linearScan();
+        int indexed = headerIndex();
+        if (linear != indexed) {
+            throw new IllegalStateException("Linear scan resolved " + linear + " references, the index " + indexed);
+        }
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int resolved = 0;
+        for (SectionXMLFile section : document.sectionXMLFileList().items()) {
+            for (Para para : section.paras()) {
+                for (ParaPr paraPr : document.headerXMLFile().refList().paraProperties().items()) {
+                    if (para.paraPrIDRef() != null && para.paraPrIDRef().equals(paraPr.id())) {
+                        resolved++;
+                        break;
+                    }
+                }
+                for (Run run : para.runs()) {
+                    for (CharPr charPr : document.headerXMLFile().refList().charProperties().items()) {
+                        if (run.charPrIDRef() != null && run.charPrIDRef().equals(charPr.id())) {
+                            resolved++;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return resolved;
+    }
+
+    @Benchmark
+    public int headerIndex() {
+        HeaderIndex index = HeaderIndex.build(document);
+        int resolved = 0;
+        for (SectionXMLFile section : document.sectionXMLFileList().items()) {
+            for (Para para : section.paras()) {
+                if (index.paraPr(para.paraPrIDRef()) != null) {
+                    resolved++;
+                }
+                for (Run run : para.runs()) {
+                    if (index.charPr(run.charPrIDRef()) != null) {
+                        resolved++;
+                    }
+                }
+            }
+        }
+        return resolved;
+    }
+}
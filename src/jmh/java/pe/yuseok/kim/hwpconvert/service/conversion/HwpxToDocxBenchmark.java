@@ -0,0 +1,54 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import pe.yuseok.kim.hwpconvert.model.ConversionResult;
+
+/**
+ * HWPX to DOCX end to end, from the HWPX file to a verified DOCX file, as the queue worker runs it
+ */
+@State(Scope.Benchmark)
+public class HwpxToDocxBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private BenchmarkFixtures.Size size;
+
+    @Param({"TEXT", "TABLE", "PICTURES"})
+    private BenchmarkFixtures.Content content;
+
+    private Path source;
+    private Path outputDir;
+    private HwpxToDocxStrategy strategy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = BenchmarkFixtures.write(size, content);
+        outputDir = Files.createDirectories(source.resolveSibling("out"));
+        strategy = new HwpxToDocxStrategy(new ImageOptimizer());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.delete(source.getParent());
+    }
+
+    @Benchmark
+    public ConversionResult convert() throws IOException {
+        ConversionResult result = strategy.convert(source.toFile(), outputDir.toFile(), "docx");
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(result.getErrorMessage());
+        }
+        Files.delete(outputDir.resolve(result.getConvertedFileName()));
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.reader.HWPXReader;
+
+/**
+ * The phases of an HWPX to DOCX conversion one at a time. The transform benchmark measures
+ * paragraph and run emission on TEXT fixtures, table conversion on TABLE fixtures and picture
+ * embedding on PICTURES fixtures.
+ */
+@State(Scope.Benchmark)
+public class HwpxToDocxPhaseBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private BenchmarkFixtures.Size size;
+
+    @Param({"TEXT", "TABLE", "PICTURES"})
+    private BenchmarkFixtures.Content content;
+
+    private Path source;
+    private HWPXFile hwpxFile;
+    private HwpxToDocxStrategy strategy;
+    private XWPFDocument converted;
+    private Path docxFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        source = BenchmarkFixtures.write(size, content);
+        hwpxFile = HWPXReader.fromFile(source.toFile());
+        strategy = new HwpxToDocxStrategy(new ImageOptimizer());
+
+        converted = new XWPFDocument();
+        strategy.transform(hwpxFile, converted);
+        docxFile = source.resolveSibling("converted.docx");
+        try (OutputStream out = Files.newOutputStream(docxFile)) {
+            converted.write(out);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        converted.close();
+        BenchmarkFixtures.delete(source.getParent());
+    }
+
+    @Benchmark
+    public HWPXFile parse() throws Exception {
+        return HWPXReader.fromFile(source.toFile());
+    }
+
+    @Benchmark
+    public int transform() throws IOException {
+        try (XWPFDocument docxDocument = new XWPFDocument()) {
+            strategy.transform(hwpxFile, docxDocument);
+            return docxDocument.getBodyElements().size();
+        }
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        converted.write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void verify() throws IOException {
+        DocxPackageValidator.validate(docxFile);
+    }
+}
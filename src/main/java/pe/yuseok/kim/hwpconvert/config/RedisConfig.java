@@ -12,6 +12,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import pe.yuseok.kim.hwpconvert.model.ConversionTask;
+import pe.yuseok.kim.hwpconvert.model.UploadSession;
 
 @Configuration
 public class RedisConfig {
@@ -38,6 +39,20 @@ public class RedisConfig {
         return template;
     }
 
+    @Bean
+    public RedisTemplate<String, UploadSession> uploadSessionRedisTemplate(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        RedisTemplate<String, UploadSession> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        
+        Jackson2JsonRedisSerializer<UploadSession> serializer = new Jackson2JsonRedisSerializer<>(objectMapper, UploadSession.class);
+        template.setValueSerializer(serializer);
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(serializer);
+        template.afterPropertiesSet();
+        return template;
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -0,0 +1,66 @@
+package pe.yuseok.kim.hwpconvert.controller;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import lombok.RequiredArgsConstructor;
+import pe.yuseok.kim.hwpconvert.model.ConversionTask;
+import pe.yuseok.kim.hwpconvert.model.TaskEvent;
+import pe.yuseok.kim.hwpconvert.service.ConversionService;
+
+@Controller
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ConversionService conversionService;
+
+    /**
+     * Shows the timeline of a task, with the time since the previous event and since the upload,
+     * to tell time spent waiting in the queue from time spent converting
+     */
+    @GetMapping("/tasks")
+    public String taskTimeline(@RequestParam(required = false) String taskId, Model model) {
+        if (taskId == null || taskId.isBlank()) {
+            return "admin/task";
+        }
+
+        model.addAttribute("taskId", taskId);
+        ConversionTask task = conversionService.getTaskStatus(taskId.trim());
+        if (task == null) {
+            model.addAttribute("error", "Task not found: " + taskId);
+            return "admin/task";
+        }
+
+        model.addAttribute("task", task);
+        model.addAttribute("timeline", timelineRows(task.getTimeline()));
+        return "admin/task";
+    }
+
+    private static List<TimelineRow> timelineRows(List<TaskEvent> timeline) {
+        List<TimelineRow> rows = new ArrayList<>();
+        if (timeline == null || timeline.isEmpty()) {
+            return rows;
+        }
+        LocalDateTime first = timeline.get(0).getAt();
+        LocalDateTime previous = first;
+        for (TaskEvent event : timeline) {
+            rows.add(new TimelineRow(event.getName(), event.getAt(), event.getDetail(),
+                    Duration.between(previous, event.getAt()).toMillis(),
+                    Duration.between(first, event.getAt()).toMillis()));
+            previous = event.getAt();
+        }
+        return rows;
+    }
+
+    public record TimelineRow(String name, LocalDateTime at, String detail, long sincePreviousMillis, long sinceStartMillis) {
+    }
+}
@@ -1,14 +1,14 @@
 package pe.yuseok.kim.hwpconvert.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.security.Principal;
+import java.util.List;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -21,10 +21,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.model.ConversionBatch;
+import pe.yuseok.kim.hwpconvert.model.ConversionResult;
 import pe.yuseok.kim.hwpconvert.model.ConversionTask;
+import pe.yuseok.kim.hwpconvert.service.BatchConversionService;
 import pe.yuseok.kim.hwpconvert.service.ConversionService;
+import pe.yuseok.kim.hwpconvert.service.FileDownloadService;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.Area;
 
 @Slf4j
 @Controller
@@ -33,6 +40,8 @@ import pe.yuseok.kim.hwpconvert.service.ConversionService;
 public class ConversionController {
 
     private final ConversionService conversionService;
+    private final BatchConversionService batchConversionService;
+    private final FileDownloadService fileDownloadService;
     
     @GetMapping
     public String convertPage() {
@@ -59,6 +68,89 @@ public class ConversionController {
         }
     }
     
+    @PostMapping("/sync")
+    public void convertSync(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("targetFormat") String targetFormat,
+            HttpServletResponse response) throws IOException {
+        
+        String originalFilename = String.valueOf(file.getOriginalFilename());
+        String baseName = originalFilename.contains(".")
+                ? originalFilename.substring(0, originalFilename.lastIndexOf('.'))
+                : originalFilename;
+        String encodedFilename = URLEncoder.encode(baseName + "." + targetFormat.toLowerCase(), StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        
+        // The output is written while it is produced, so its length is unknown and the response is chunked
+        response.setContentType(FileDownloadService.contentTypeForFormat(targetFormat));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename);
+        
+        try {
+            ConversionResult result = conversionService.convertDirect(file, targetFormat, response.getOutputStream());
+            if (!result.isSuccess() && !response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), result.getErrorMessage());
+            }
+        } catch (IllegalArgumentException e) {
+            response.reset();
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        }
+    }
+    
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> convertBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam("targetFormat") String targetFormat,
+            Principal principal) {
+        
+        try {
+            ConversionBatch batch = batchConversionService.queueBatch(principal.getName(), files, targetFormat);
+            return ResponseEntity.status(HttpStatus.CREATED).body(batch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            log.error("Error during batch upload", e);
+            return ResponseEntity.internalServerError().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Queues the documents of a ZIP archive sent as the request body. The body is streamed entry by
+     * entry and is not parsed as multipart, so archives larger than the multipart limits use this
+     */
+    @PostMapping(value = "/batch", consumes = "application/zip")
+    @ResponseBody
+    public ResponseEntity<?> convertArchive(
+            @RequestParam("targetFormat") String targetFormat,
+            HttpServletRequest request,
+            Principal principal) {
+        
+        try {
+            ConversionBatch batch = batchConversionService.queueArchive(principal.getName(), request.getInputStream(),
+                    targetFormat);
+            return ResponseEntity.status(HttpStatus.CREATED).body(batch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            log.error("Error during archive upload", e);
+            return ResponseEntity.internalServerError().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/batch/{batchId}")
+    @ResponseBody
+    public ResponseEntity<ConversionBatch> checkBatchStatus(@PathVariable String batchId, Principal principal) {
+        ConversionBatch batch = batchConversionService.getBatch(batchId, principal.getName());
+        return batch != null ? ResponseEntity.ok(batch) : ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/tasks/{taskId}")
+    public String statusPage(@PathVariable String taskId, Model model) {
+        model.addAttribute("taskId", taskId);
+        return "convert/status";
+    }
+    
     @GetMapping("/status/{taskId}")
     @ResponseBody
     public ConversionTask checkStatus(@PathVariable String taskId) {
@@ -66,32 +158,26 @@ public class ConversionController {
     }
     
     @GetMapping("/download/{taskId}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String taskId) throws IOException {
+    public void downloadFile(@PathVariable String taskId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         ConversionTask task = conversionService.getTaskStatus(taskId);
         
         if (task == null || !"COMPLETED".equals(task.getStatus())) {
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
         }
         
-        Path filePath = Paths.get(task.getResultFileUrl());
-        Resource resource = new UrlResource(filePath.toUri());
-        
-        if (!resource.exists() || !resource.isReadable()) {
-            return ResponseEntity.notFound().build();
-        }
-        
-        String contentType = Files.probeContentType(filePath);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
+        // The result is a storage key (older tasks kept the full path of the output)
+        String resultKey = Paths.get(task.getResultFileUrl()).getFileName().toString();
+        String contentType = task.getResultContentType() != null
+                ? task.getResultContentType()
+                : FileDownloadService.contentTypeForFormat(task.getTargetFormat());
         
         String originalFilename = task.getSourceFileName();
         String extension = task.getTargetFormat().toLowerCase();
         String outputFilename = originalFilename.substring(0, originalFilename.lastIndexOf('.')) + "." + extension;
         
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + outputFilename + "\"")
-                .body(resource);
+        fileDownloadService.sendStoredFile(Area.OUTPUT, resultKey, contentType, task.getResultFileSize(),
+                "attachment; filename=\"" + outputFilename + "\"", request, response);
     }
 } 
\ No newline at end of file
@@ -1,9 +1,7 @@
 package pe.yuseok.kim.hwpconvert.controller;
 
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,8 +10,12 @@ import org.springframework.web.bind.annotation.*;
 import pe.yuseok.kim.hwpconvert.model.entity.Document;
 import pe.yuseok.kim.hwpconvert.model.entity.User;
 import pe.yuseok.kim.hwpconvert.service.DocumentService;
+import pe.yuseok.kim.hwpconvert.service.FileDownloadService;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.Area;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -23,9 +25,11 @@ import java.util.List;
 public class DocumentController {
     
     private final DocumentService documentService;
+    private final FileDownloadService fileDownloadService;
     
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, FileDownloadService fileDownloadService) {
         this.documentService = documentService;
+        this.fileDownloadService = fileDownloadService;
     }
     
     @GetMapping
@@ -64,31 +68,52 @@ public class DocumentController {
     }
     
     @GetMapping("/download/{token}")
-    public ResponseEntity<Resource> downloadDocument(@PathVariable String token) {
+    public void downloadDocument(@PathVariable String token, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
         Document document = documentService.getDocumentByDownloadToken(token)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid download token"));
         
         if (!document.isConverted() || document.getConvertedFilename() == null) {
-            return ResponseEntity.badRequest().build();
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
         }
         
-        try {
-            Resource resource = documentService.loadFileAsResource(document.getConvertedFilename());
-            
-            // Encode the filename to ensure it's properly handled in HTTP headers
-            String encodedFilename = URLEncoder.encode(document.getOriginalFilename(), StandardCharsets.UTF_8.toString())
-                    .replace("+", "%20");
-            
-            // Set content-disposition header to trigger download
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, 
-                            "attachment; filename*=UTF-8''" + encodedFilename + "." + document.getConvertedFormat())
-                    .body(resource);
-            
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+        // Encode the filename to ensure it's properly handled in HTTP headers
+        String encodedFilename = URLEncoder.encode(document.getOriginalFilename(), StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        String contentType = document.getConvertedContentType() != null
+                ? document.getConvertedContentType()
+                : FileDownloadService.contentTypeForFormat(document.getConvertedFormat());
+        
+        // Set content-disposition header to trigger download
+        fileDownloadService.sendStoredFile(Area.OUTPUT, document.getConvertedFilename(), contentType,
+                document.getConvertedFileSize(),
+                "attachment; filename*=UTF-8''" + encodedFilename + "." + document.getConvertedFormat(),
+                request, response);
+    }
+    
+    @GetMapping("/bundle")
+    public void downloadBundle(@RequestParam(value = "ids", required = false) List<Long> ids,
+                               @RequestParam(value = "batchId", required = false) String batchId,
+                               @AuthenticationPrincipal User user, HttpServletResponse response) throws IOException {
+        List<Document> documents;
+        if (batchId != null) {
+            documents = documentService.getConvertedDocumentsByBatch(batchId, user);
+        } else if (ids != null && !ids.isEmpty()) {
+            documents = documentService.getConvertedDocumentsByIds(ids, user);
+        } else {
+            documents = documentService.getConvertedDocumentsByUser(user);
         }
+        
+        if (documents.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        
+        // The archive is streamed, so its length is unknown and the response is chunked
+        response.setContentType(FileDownloadService.contentTypeForFormat("zip"));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"documents.zip\"");
+        documentService.writeBundle(documents, response.getOutputStream());
     }
     
     @PostMapping("/{id}/delete")
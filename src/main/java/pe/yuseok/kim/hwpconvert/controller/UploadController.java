@@ -0,0 +1,155 @@
+package pe.yuseok.kim.hwpconvert.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.model.UploadSession;
+import pe.yuseok.kim.hwpconvert.service.UploadService;
+
+/**
+ * Resumable uploads following the tus protocol (core + creation + termination):
+ * POST creates an upload, HEAD reports how many bytes arrived, PATCH appends a chunk at that offset.
+ * The conversion is queued when the last chunk arrives and its task id is returned in Conversion-Task-Id.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private static final String TUS_RESUMABLE = "Tus-Resumable";
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private static final String UPLOAD_METADATA = "Upload-Metadata";
+    private static final String CONVERSION_TASK_ID = "Conversion-Task-Id";
+
+    private final UploadService uploadService;
+
+    @PostMapping
+    public ResponseEntity<Void> createUpload(
+            @RequestHeader(UPLOAD_LENGTH) long length,
+            @RequestHeader(value = UPLOAD_METADATA, required = false) String metadata,
+            Principal principal) {
+
+        if (length > uploadService.getMaxSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+
+        try {
+            Map<String, String> values = parseMetadata(metadata);
+            UploadSession session = uploadService.createUpload(principal.getName(), values.get("filename"),
+                    values.get("filetype"), values.get("targetFormat"), length);
+
+            return ResponseEntity.created(URI.create("/uploads/" + session.getId()))
+                    .header(TUS_RESUMABLE, TUS_VERSION)
+                    .header(UPLOAD_OFFSET, "0")
+                    .build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().header(TUS_RESUMABLE, TUS_VERSION).build();
+        } catch (IOException e) {
+            log.error("Error creating upload", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @RequestMapping(value = "/{uploadId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getUploadOffset(@PathVariable String uploadId, Principal principal) throws IOException {
+        UploadSession session = uploadService.getUpload(uploadId, principal.getName());
+        if (session == null) {
+            return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+
+        return withTaskId(ResponseEntity.ok(), session)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getLength()))
+                .build();
+    }
+
+    @PatchMapping(value = "/{uploadId}", consumes = "application/offset+octet-stream")
+    public ResponseEntity<Void> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request,
+            Principal principal) throws IOException {
+
+        UploadSession session = uploadService.getUpload(uploadId, principal.getName());
+        if (session == null) {
+            return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+
+        try {
+            session = uploadService.appendChunk(session, offset, request.getInputStream());
+        } catch (IllegalStateException e) {
+            log.warn("Conflicting chunk for upload {}: {}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(TUS_RESUMABLE, TUS_VERSION).build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected chunk for upload {}: {}", uploadId, e.getMessage());
+            return ResponseEntity.badRequest().header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+
+        return withTaskId(ResponseEntity.noContent(), session)
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .build();
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> deleteUpload(@PathVariable String uploadId, Principal principal) throws IOException {
+        UploadSession session = uploadService.getUpload(uploadId, principal.getName());
+        if (session == null) {
+            return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+
+        uploadService.deleteUpload(session);
+        return ResponseEntity.noContent().header(TUS_RESUMABLE, TUS_VERSION).build();
+    }
+
+    private ResponseEntity.HeadersBuilder<?> withTaskId(ResponseEntity.HeadersBuilder<?> builder, UploadSession session) {
+        builder.header(TUS_RESUMABLE, TUS_VERSION);
+        if (session.getTaskId() != null) {
+            builder.header(CONVERSION_TASK_ID, session.getTaskId());
+        }
+        return builder;
+    }
+
+    /**
+     * Parses the tus Upload-Metadata header: comma separated "key base64(value)" pairs
+     */
+    private Map<String, String> parseMetadata(String metadata) {
+        Map<String, String> values = new HashMap<>();
+        if (metadata == null || metadata.isBlank()) {
+            return values;
+        }
+
+        for (String pair : metadata.split(",")) {
+            String[] parts = pair.trim().split(" ", 2);
+            String value = parts.length > 1
+                    ? new String(Base64.getDecoder().decode(parts[1].trim()), StandardCharsets.UTF_8)
+                    : "";
+            values.put(parts[0], value);
+        }
+        return values;
+    }
+}
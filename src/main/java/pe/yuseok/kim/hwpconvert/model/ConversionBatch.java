@@ -0,0 +1,25 @@
+package pe.yuseok.kim.hwpconvert.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregate view of the conversion tasks created from one batch upload
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionBatch {
+    private String batchId;
+    private String targetFormat;
+    private long total;
+    private long completed;
+    private long failed;
+    private long pending;
+    private List<String> skippedFiles;
+}
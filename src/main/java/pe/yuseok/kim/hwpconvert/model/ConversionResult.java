@@ -1,6 +1,10 @@
 package pe.yuseok.kim.hwpconvert.model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ConversionResult {
     private String sourceFileName;
@@ -11,6 +15,10 @@ public class ConversionResult {
     private String errorMessage;
     private LocalDateTime completionTime;
     private String downloadUrl;
+    private String contentType;
+    private Long fileSize;
+    private Map<String, Long> phaseDurations = new LinkedHashMap<>(); // milliseconds by phase, in order
+    private List<TaskEvent> phaseEvents = new ArrayList<>(); // end of each phase, in order
 
     public ConversionResult() {
         this.completionTime = LocalDateTime.now();
@@ -91,4 +99,46 @@ public class ConversionResult {
     public void setDownloadUrl(String downloadUrl) {
         this.downloadUrl = downloadUrl;
     }
-} 
\ No newline at end of file
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Map<String, Long> getPhaseDurations() {
+        return phaseDurations;
+    }
+
+    public void setPhaseDurations(Map<String, Long> phaseDurations) {
+        this.phaseDurations = phaseDurations;
+    }
+
+    public List<TaskEvent> getPhaseEvents() {
+        return phaseEvents;
+    }
+
+    public void setPhaseEvents(List<TaskEvent> phaseEvents) {
+        this.phaseEvents = phaseEvents;
+    }
+
+    /**
+     * Records how long a phase of the conversion took, and that it ended now; repeated phases add up
+     * @param phase The phase name
+     * @param millis The duration in milliseconds
+     */
+    public void addPhaseDuration(String phase, long millis) {
+        phaseDurations.merge(phase, millis, Long::sum);
+        phaseEvents.add(new TaskEvent(phase, LocalDateTime.now(), millis + " ms"));
+    }
+}
@@ -2,6 +2,9 @@ package pe.yuseok.kim.hwpconvert.model;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import lombok.AllArgsConstructor;
@@ -21,11 +24,17 @@ public class ConversionTask implements Serializable {
     private String sourceFileName;
     private String sourceFileContentType;
     private String targetFormat;
+    private String contentHash; // SHA-256 of the uploaded file
+    private String batchId;
     private String status; // PENDING, PROCESSING, COMPLETED, FAILED
     private LocalDateTime createdAt;
     private LocalDateTime processedAt;
     private String resultFileUrl;
+    private String resultContentType;
+    private Long resultFileSize;
     private String errorMessage;
+    private Map<String, Long> phaseDurations; // milliseconds by conversion phase
+    private List<TaskEvent> timeline; // lifecycle events and phase ends, in order
 
     @Builder.Default
     private int priority = 0;
@@ -39,6 +48,25 @@ public class ConversionTask implements Serializable {
                 .targetFormat(targetFormat)
                 .status("PENDING")
                 .createdAt(LocalDateTime.now())
+                .timeline(new ArrayList<>())
                 .build();
     }
+
+    /**
+     * Adds an event to the timeline
+     * @param name The event name, see {@link TaskEvent}
+     * @param at When it happened
+     * @param detail Additional information, or null
+     */
+    public void addEvent(String name, LocalDateTime at, String detail) {
+        // Tasks stored before the timeline existed have none
+        if (timeline == null) {
+            timeline = new ArrayList<>();
+        }
+        timeline.add(new TaskEvent(name, at, detail));
+    }
+
+    public void addEvent(String name, String detail) {
+        addEvent(name, LocalDateTime.now(), detail);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,7 @@
+package pe.yuseok.kim.hwpconvert.model;
+
+/**
+ * The parts of an expired document the sweeper needs to delete its files
+ */
+public record ExpiredDocument(Long id, String storedFilename, String convertedFilename) {
+}
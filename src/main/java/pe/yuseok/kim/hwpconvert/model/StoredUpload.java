@@ -0,0 +1,20 @@
+package pe.yuseok.kim.hwpconvert.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * An uploaded file that has been written to the TEMP storage area and is ready to be queued
+ */
+@Data
+@AllArgsConstructor
+public class StoredUpload {
+    private String storageKey;
+    private String originalFilename;
+    private String contentType;
+    private long fileSize;
+    private String contentHash; // SHA-256 of the file (hex)
+    private LocalDateTime uploadedAt;
+}
@@ -0,0 +1,33 @@
+package pe.yuseok.kim.hwpconvert.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A point in the life of a conversion task. Besides the lifecycle events below, the timeline
+ * holds the end of each conversion phase under the phase name (see PhaseClock) with its duration
+ * as detail, so a phase runs from the event before it to its own event.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String UPLOADED = "uploaded";
+    public static final String PERSISTED = "persisted";
+    public static final String ENQUEUED = "enqueued";
+    public static final String CLAIMED = "claimed";
+    public static final String STARTED = "started";
+    public static final String DB_UPDATED = "db-updated";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+
+    private String name;
+    private LocalDateTime at;
+    private String detail;
+}
@@ -0,0 +1,50 @@
+package pe.yuseok.kim.hwpconvert.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String userId;
+    private String fileName;
+    private String contentType;
+    private String targetFormat;
+    private long length;
+    private long offset;
+    private String status; // UPLOADING, COMPLETED
+    private String taskId;
+    private LocalDateTime createdAt;
+
+    public static UploadSession create(String userId, String fileName, String contentType, String targetFormat, long length) {
+        return UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .fileName(fileName)
+                .contentType(contentType)
+                .targetFormat(targetFormat)
+                .length(length)
+                .offset(0)
+                .status("UPLOADING")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @JsonIgnore
+    public boolean isComplete() {
+        return offset >= length;
+    }
+}
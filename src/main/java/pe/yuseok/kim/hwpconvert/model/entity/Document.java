@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+    @Index(name = "idx_documents_batch_id", columnList = "batch_id"),
+    @Index(name = "idx_documents_expires_at", columnList = "expires_at")
+})
 public class Document {
     
     @Id
@@ -26,12 +29,21 @@ public class Document {
     @Column
     private String convertedFormat;
     
+    @Column
+    private String convertedContentType;
+    
+    @Column
+    private Long convertedFileSize;
+    
     @Column(nullable = false)
     private LocalDateTime uploadDate;
     
     @Column
     private LocalDateTime conversionDate;
     
+    @Column
+    private LocalDateTime expiresAt;
+    
     @Column(nullable = false)
     private boolean converted = false;
     
@@ -41,6 +53,12 @@ public class Document {
     @Column(nullable = false)
     private Long fileSize;
     
+    @Column(length = 64)
+    private String contentHash;
+    
+    @Column(length = 36)
+    private String batchId;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User owner;
@@ -102,6 +120,22 @@ public class Document {
         this.convertedFormat = convertedFormat;
     }
 
+    public String getConvertedContentType() {
+        return convertedContentType;
+    }
+
+    public void setConvertedContentType(String convertedContentType) {
+        this.convertedContentType = convertedContentType;
+    }
+
+    public Long getConvertedFileSize() {
+        return convertedFileSize;
+    }
+
+    public void setConvertedFileSize(Long convertedFileSize) {
+        this.convertedFileSize = convertedFileSize;
+    }
+
     public LocalDateTime getUploadDate() {
         return uploadDate;
     }
@@ -118,6 +152,14 @@ public class Document {
         this.conversionDate = conversionDate;
     }
 
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
     public boolean isConverted() {
         return converted;
     }
@@ -142,6 +184,22 @@ public class Document {
         this.fileSize = fileSize;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
     public User getOwner() {
         return owner;
     }
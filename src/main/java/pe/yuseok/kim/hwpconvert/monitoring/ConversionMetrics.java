@@ -0,0 +1,44 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import pe.yuseok.kim.hwpconvert.model.ConversionResult;
+
+/**
+ * Publishes the phase durations of conversions as Micrometer timers
+ * ("conversion.phase", tagged by source format, target format and phase) with histograms,
+ * so percentiles can be compared per phase and format pair.
+ */
+@Component
+public class ConversionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConversionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the phases of a finished conversion
+     * @param sourceFormat The source format
+     * @param targetFormat The target format
+     * @param result The result holding the phase durations
+     */
+    public void recordPhases(String sourceFormat, String targetFormat, ConversionResult result) {
+        for (Map.Entry<String, Long> phase : result.getPhaseDurations().entrySet()) {
+            Timer.builder("conversion.phase")
+                    .description("Time spent in a phase of a document conversion")
+                    .tag("source", String.valueOf(sourceFormat))
+                    .tag("target", String.valueOf(targetFormat))
+                    .tag("phase", phase.getKey())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(phase.getValue(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
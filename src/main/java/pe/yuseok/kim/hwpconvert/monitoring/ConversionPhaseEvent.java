@@ -0,0 +1,43 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one phase of a conversion (see {@link PhaseClock}). The phase is only known
+ * when it ends, so the fields are set just before the event is committed.
+ */
+@Name("pe.yuseok.kim.hwpconvert.ConversionPhase")
+@Label("Conversion Phase")
+@Category({"HWP Convert", "Conversion"})
+@StackTrace(false)
+public class ConversionPhaseEvent extends Event {
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Source File")
+    private String sourceFile;
+
+    @Label("Source Format")
+    private String sourceFormat;
+
+    @Label("Target Format")
+    private String targetFormat;
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    public void setSourceFile(String sourceFile) {
+        this.sourceFile = sourceFile;
+    }
+
+    public void setFormats(String sourceFormat, String targetFormat) {
+        this.sourceFormat = sourceFormat;
+        this.targetFormat = targetFormat;
+    }
+}
@@ -0,0 +1,44 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a Redis or database call made while queueing or processing a task
+ */
+@Name("pe.yuseok.kim.hwpconvert.DataStoreCall")
+@Label("Data Store Call")
+@Category({"HWP Convert", "Data Store"})
+@StackTrace(false)
+public class DataStoreCallEvent extends Event {
+
+    public static final String REDIS = "redis";
+    public static final String DATABASE = "database";
+
+    @Label("Store")
+    private String store;
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Task Id")
+    private String taskId;
+
+    public DataStoreCallEvent(String store, String operation, String taskId) {
+        this.store = store;
+        this.operation = operation;
+        this.taskId = taskId;
+    }
+
+    /**
+     * Creates and begins an event; call {@link #commit()} when the call has returned
+     */
+    public static DataStoreCallEvent start(String store, String operation, String taskId) {
+        DataStoreCallEvent event = new DataStoreCallEvent(store, operation, taskId);
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,34 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for embedding a picture into the output document
+ */
+@Name("pe.yuseok.kim.hwpconvert.ImageEmbedding")
+@Label("Image Embedding")
+@Category({"HWP Convert", "Conversion"})
+@StackTrace(false)
+public class ImageEmbeddingEvent extends Event {
+
+    @Label("Binary Item")
+    private String binaryItemId;
+
+    @Label("Media Type")
+    private String mediaType;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    public ImageEmbeddingEvent(String binaryItemId, String mediaType, long bytes) {
+        this.binaryItemId = binaryItemId;
+        this.mediaType = mediaType;
+        this.bytes = bytes;
+    }
+}
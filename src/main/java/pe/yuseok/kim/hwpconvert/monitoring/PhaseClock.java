@@ -0,0 +1,61 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import pe.yuseok.kim.hwpconvert.model.ConversionResult;
+
+/**
+ * Lap timer for the phases of a conversion. Each call to {@link #mark} ends the running phase,
+ * records its duration on the result and starts the next one. Phases are also emitted as
+ * {@link ConversionPhaseEvent}s when a flight recording is running.
+ */
+public class PhaseClock {
+
+    public static final String READ = "read";
+    public static final String IMAGES = "images";
+    public static final String TRANSFORM = "transform";
+    public static final String VALIDATE = "validate";
+    public static final String WRITE = "write";
+    public static final String VERIFY = "verify";
+    /** A whole conversion, for strategies that do not report their phases */
+    public static final String CONVERT = "convert";
+    /** Reusing an earlier output from the conversion cache */
+    public static final String CACHE = "cache";
+    public static final String STORE = "store";
+
+    private final ConversionResult result;
+    private long phaseStart;
+    private ConversionPhaseEvent phaseEvent;
+
+    /**
+     * Starts timing the first phase
+     * @param result The result the durations are recorded on
+     */
+    public PhaseClock(ConversionResult result) {
+        this.result = result;
+        this.phaseStart = System.nanoTime();
+        this.phaseEvent = beginPhaseEvent();
+    }
+
+    /**
+     * Ends the running phase and starts the next
+     * @param phase The name of the phase that just ended
+     */
+    public void mark(String phase) {
+        long now = System.nanoTime();
+        result.addPhaseDuration(phase, TimeUnit.NANOSECONDS.toMillis(now - phaseStart));
+        phaseStart = now;
+
+        phaseEvent.setPhase(phase);
+        phaseEvent.setSourceFile(result.getSourceFileName());
+        phaseEvent.setFormats(result.getSourceFormat(), result.getTargetFormat());
+        phaseEvent.commit();
+        phaseEvent = beginPhaseEvent();
+    }
+
+    private static ConversionPhaseEvent beginPhaseEvent() {
+        ConversionPhaseEvent event = new ConversionPhaseEvent();
+        event.begin();
+        return event;
+    }
+}
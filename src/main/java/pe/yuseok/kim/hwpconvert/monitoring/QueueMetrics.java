@@ -0,0 +1,165 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Queue and worker meters:
+ * <ul>
+ * <li>conversion.queue.depth - tasks waiting, per lane</li>
+ * <li>conversion.queue.enqueued - tasks added, per lane</li>
+ * <li>conversion.queue.wait - time from enqueue to dequeue, per lane</li>
+ * <li>conversion.tasks.in.flight - tasks being processed</li>
+ * <li>conversion.tasks - finished tasks per source, target and outcome (success, failure, timeout)</li>
+ * <li>conversion.bytes.in / conversion.bytes.out - source and result sizes per source and target</li>
+ * <li>conversion.workers and conversion.worker.busy - worker count and the time workers spent on tasks;
+ * rate(busy) / workers is the worker utilization</li>
+ * </ul>
+ */
+@Component
+public class QueueMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    public static final String TIMEOUT = "timeout";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong busyNanos = new AtomicLong();
+
+    public QueueMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("conversion.tasks.in.flight", inFlight, AtomicInteger::get)
+                .description("Conversion tasks being processed")
+                .register(meterRegistry);
+        FunctionCounter.builder("conversion.worker.busy", busyNanos, nanos -> nanos.get() / 1e9)
+                .description("Time workers spent processing tasks")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes the depth of a queue lane; the supplier is called on every scrape
+     * @param lane The lane name
+     * @param depth Returns the number of waiting tasks
+     */
+    public void registerQueue(String lane, Supplier<Number> depth) {
+        Gauge.builder("conversion.queue.depth", depth)
+                .description("Conversion tasks waiting in the queue")
+                .tag("lane", lane)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param workers The number of tasks that can be processed at the same time
+     */
+    public void registerWorkers(int workers) {
+        Gauge.builder("conversion.workers", () -> workers)
+                .description("Conversion workers")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public void recordEnqueued(String lane, int count) {
+        Counter.builder("conversion.queue.enqueued")
+                .description("Conversion tasks added to the queue")
+                .tag("lane", lane)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Records how long a task waited in the queue
+     * @param lane The lane the task was taken from
+     * @param createdAt When the task was created and enqueued
+     */
+    public void recordDequeued(String lane, LocalDateTime createdAt) {
+        if (createdAt == null) {
+            return;
+        }
+        Duration wait = Duration.between(createdAt, LocalDateTime.now());
+        Timer.builder("conversion.queue.wait")
+                .description("Time conversion tasks waited in the queue")
+                .tag("lane", lane)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(wait.isNegative() ? Duration.ZERO : wait);
+    }
+
+    /**
+     * Marks a task as in flight
+     * @return The start time to pass to {@link #taskFinished}
+     */
+    public long taskStarted() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a finished task
+     * @param sourceFormat The source format, or null if it was not determined
+     * @param targetFormat The target format
+     * @param outcome {@link #SUCCESS}, {@link #FAILURE} or {@link #TIMEOUT}
+     * @param start The value returned by {@link #taskStarted}
+     */
+    public void taskFinished(String sourceFormat, String targetFormat, String outcome, long start) {
+        inFlight.decrementAndGet();
+        busyNanos.addAndGet(System.nanoTime() - start);
+        Counter.builder("conversion.tasks")
+                .description("Finished conversion tasks")
+                .tag("source", String.valueOf(sourceFormat))
+                .tag("target", String.valueOf(targetFormat))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records the size of a source file and of its converted result
+     * @param bytesIn Size of the source file
+     * @param bytesOut Size of the result, or 0 if there is none
+     */
+    public void recordBytes(String sourceFormat, String targetFormat, long bytesIn, long bytesOut) {
+        bytesSummary("conversion.bytes.in", "Size of converted source files", sourceFormat, targetFormat)
+                .record(bytesIn);
+        if (bytesOut > 0) {
+            bytesSummary("conversion.bytes.out", "Size of conversion results", sourceFormat, targetFormat)
+                    .record(bytesOut);
+        }
+    }
+
+    /**
+     * @return {@link #TIMEOUT} if a timeout caused the exception, {@link #FAILURE} otherwise
+     */
+    public static String outcomeOf(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            // java.util.concurrent and java.net timeouts, and those of the Redis and S3 clients
+            if (cause.getClass().getSimpleName().endsWith("TimeoutException")) {
+                return TIMEOUT;
+            }
+        }
+        return FAILURE;
+    }
+
+    private DistributionSummary bytesSummary(String name, String description, String sourceFormat, String targetFormat) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tag("source", String.valueOf(sourceFormat))
+                .tag("target", String.valueOf(targetFormat))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for converting a table, including the content of its cells
+ */
+@Name("pe.yuseok.kim.hwpconvert.TableConversion")
+@Label("Table Conversion")
+@Category({"HWP Convert", "Conversion"})
+@StackTrace(false)
+public class TableConversionEvent extends Event {
+
+    @Label("Table Id")
+    private String tableId;
+
+    @Label("Rows")
+    private int rows;
+
+    @Label("Columns")
+    private int columns;
+
+    @Label("Cells")
+    private int cells;
+
+    public TableConversionEvent(String tableId) {
+        this.tableId = tableId;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    public void setCells(int cells) {
+        this.cells = cells;
+    }
+}
@@ -0,0 +1,42 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for taking a task from the queue; its duration covers the Redis pop and task lookup
+ */
+@Name("pe.yuseok.kim.hwpconvert.TaskDequeue")
+@Label("Task Dequeue")
+@Category({"HWP Convert", "Queue"})
+@StackTrace(false)
+public class TaskDequeueEvent extends Event {
+
+    @Label("Task Id")
+    private String taskId;
+
+    @Label("Lane")
+    private String lane;
+
+    @Label("Queue Wait")
+    @Description("Time from enqueue to dequeue")
+    @Timespan(Timespan.MILLISECONDS)
+    private long queueWait;
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public void setLane(String lane) {
+        this.lane = lane;
+    }
+
+    public void setQueueWait(long queueWait) {
+        this.queueWait = queueWait;
+    }
+}
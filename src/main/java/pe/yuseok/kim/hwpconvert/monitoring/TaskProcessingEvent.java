@@ -0,0 +1,60 @@
+package pe.yuseok.kim.hwpconvert.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the processing of a queued task. Phase, image, table and data store events
+ * recorded on the same thread within its duration belong to the task.
+ */
+@Name("pe.yuseok.kim.hwpconvert.TaskProcessing")
+@Label("Task Processing")
+@Category({"HWP Convert", "Queue"})
+@StackTrace(false)
+public class TaskProcessingEvent extends Event {
+
+    @Label("Task Id")
+    private String taskId;
+
+    @Label("Source Format")
+    private String sourceFormat;
+
+    @Label("Target Format")
+    private String targetFormat;
+
+    @Label("Bytes In")
+    @DataAmount
+    private long bytesIn;
+
+    @Label("Bytes Out")
+    @DataAmount
+    private long bytesOut;
+
+    @Label("Outcome")
+    private String outcome;
+
+    public TaskProcessingEvent(String taskId, String targetFormat) {
+        this.taskId = taskId;
+        this.targetFormat = targetFormat;
+    }
+
+    public void setSourceFormat(String sourceFormat) {
+        this.sourceFormat = sourceFormat;
+    }
+
+    public void setBytesIn(long bytesIn) {
+        this.bytesIn = bytesIn;
+    }
+
+    public void setBytesOut(long bytesOut) {
+        this.bytesOut = bytesOut;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+}
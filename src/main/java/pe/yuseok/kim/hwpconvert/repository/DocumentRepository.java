@@ -1,8 +1,12 @@
 package pe.yuseok.kim.hwpconvert.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import pe.yuseok.kim.hwpconvert.model.ExpiredDocument;
 import pe.yuseok.kim.hwpconvert.model.entity.Document;
 import pe.yuseok.kim.hwpconvert.model.entity.User;
 
@@ -18,9 +22,23 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     
     Optional<Document> findByDownloadToken(String downloadToken);
     
+    Optional<Document> findByStoredFilename(String storedFilename);
+    
     @Query("SELECT d FROM Document d WHERE d.owner = :owner AND d.converted = true ORDER BY d.conversionDate DESC")
     List<Document> findConvertedDocumentsByOwner(@Param("owner") User owner);
     
+    @Query("SELECT d FROM Document d WHERE d.owner = :owner AND d.converted = true AND d.id IN :ids ORDER BY d.conversionDate DESC")
+    List<Document> findConvertedDocumentsByOwnerAndIds(@Param("owner") User owner, @Param("ids") List<Long> ids);
+    
+    @Query("SELECT d FROM Document d WHERE d.owner = :owner AND d.batchId = :batchId AND d.converted = true ORDER BY d.conversionDate DESC")
+    List<Document> findConvertedDocumentsByOwnerAndBatchId(@Param("owner") User owner, @Param("batchId") String batchId);
+    
+    long countByOwnerAndBatchId(User owner, String batchId);
+    
+    long countByOwnerAndBatchIdAndConvertedTrue(User owner, String batchId);
+    
+    long countByOwnerAndBatchIdAndConversionErrorIsNotNull(User owner, String batchId);
+    
     @Query("SELECT d FROM Document d WHERE d.owner = :owner AND d.converted = false AND d.conversionError IS NULL ORDER BY d.uploadDate DESC")
     List<Document> findPendingDocumentsByOwner(@Param("owner") User owner);
     
@@ -29,4 +47,24 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     
     @Query("SELECT d FROM Document d WHERE d.uploadDate < :date")
     List<Document> findOlderThan(@Param("date") LocalDateTime date);
+    
+    // Served by idx_documents_expires_at: cost depends on the number of expired rows, not the table size
+    @Query("SELECT new pe.yuseok.kim.hwpconvert.model.ExpiredDocument(d.id, d.storedFilename, d.convertedFilename) "
+            + "FROM Document d WHERE d.expiresAt <= :now ORDER BY d.expiresAt")
+    List<ExpiredDocument> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Document d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.expiresAt = :expiresAt WHERE d.id IN :ids")
+    int updateExpiresAt(@Param("ids") List<Long> ids, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.expiresAt = :now WHERE d.uploadDate < :date AND (d.expiresAt IS NULL OR d.expiresAt > :now)")
+    int expireUploadedBefore(@Param("date") LocalDateTime date, @Param("now") LocalDateTime now);
 } 
\ No newline at end of file
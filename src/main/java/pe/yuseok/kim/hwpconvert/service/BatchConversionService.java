@@ -0,0 +1,286 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.model.ConversionBatch;
+import pe.yuseok.kim.hwpconvert.model.StoredUpload;
+import pe.yuseok.kim.hwpconvert.model.entity.User;
+import pe.yuseok.kim.hwpconvert.repository.DocumentRepository;
+import pe.yuseok.kim.hwpconvert.repository.UserRepository;
+import pe.yuseok.kim.hwpconvert.service.conversion.ConversionStrategyFactory;
+
+/**
+ * Queues many documents in one request, either as several uploaded files or as a ZIP archive.
+ * Multipart uploads are bounded by the global multipart limits; larger archives are sent as the
+ * raw request body and read with {@link #queueArchive}.
+ * Archive entries are streamed one at a time into storage (hashing them on the way),
+ * so the archive is never held in memory. Stored files are queued in groups: each group is one
+ * database saveAll and a couple of pipelined Redis round trips. Files that cannot be converted
+ * to the target format are skipped before they are stored, and a group that fails to queue is
+ * skipped and its files deleted, so one bad group does not fail the groups already queued.
+ */
+@Slf4j
+@Service
+public class BatchConversionService {
+
+    private static final Set<String> SOURCE_FORMATS = Set.of("hwp", "hwpx", "doc", "docx");
+
+    private final ConversionService conversionService;
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final ConversionStrategyFactory conversionStrategyFactory;
+
+    @Value("${conversion.batch.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${conversion.batch.max-entry-size:100MB}")
+    private DataSize maxEntrySize;
+
+    @Value("${conversion.batch.flush-size:100}")
+    private int flushSize;
+
+    @Value("${conversion.batch.archive-charset:UTF-8}")
+    private String archiveCharset;
+
+    public BatchConversionService(ConversionService conversionService, DocumentRepository documentRepository,
+                                  UserRepository userRepository, ConversionStrategyFactory conversionStrategyFactory) {
+        this.conversionService = conversionService;
+        this.documentRepository = documentRepository;
+        this.userRepository = userRepository;
+        this.conversionStrategyFactory = conversionStrategyFactory;
+    }
+
+    /**
+     * Queues every supported document of the uploaded files. ZIP files are expanded
+     * @param username The owner of the files
+     * @param files Uploaded documents and/or ZIP archives
+     * @param targetFormat The format to convert to
+     * @return The new batch; files that could not be queued are listed as skipped
+     */
+    public ConversionBatch queueBatch(String username, List<MultipartFile> files, String targetFormat) throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files to convert");
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        List<String> skippedFiles = new ArrayList<>();
+        List<StoredUpload> pending = new ArrayList<>();
+        int[] queued = {0};
+
+        for (MultipartFile file : files) {
+            if (file.isEmpty()) {
+                continue;
+            }
+            String fileName = Paths.get(String.valueOf(file.getOriginalFilename())).getFileName().toString();
+            if ("zip".equals(getExtension(fileName))) {
+                try (InputStream inputStream = file.getInputStream()) {
+                    expandArchive(username, inputStream, targetFormat, batchId, pending, skippedFiles, queued);
+                }
+            } else if (isSupported(fileName, targetFormat) && file.getSize() <= maxEntrySize.toBytes()) {
+                if (queued[0] + pending.size() >= maxEntries) {
+                    skippedFiles.add(fileName);
+                    continue;
+                }
+                try (InputStream inputStream = file.getInputStream()) {
+                    pending.add(storeFile(inputStream, fileName));
+                }
+                flushIfFull(username, targetFormat, batchId, pending, skippedFiles, queued);
+            } else {
+                skippedFiles.add(fileName);
+            }
+        }
+        return finishBatch(username, targetFormat, batchId, pending, skippedFiles, queued);
+    }
+
+    /**
+     * Queues every supported document of a ZIP archive read from a stream, such as a request body
+     * @param username The owner of the files
+     * @param archive The ZIP archive
+     * @param targetFormat The format to convert to
+     * @return The new batch; entries that could not be queued are listed as skipped
+     */
+    public ConversionBatch queueArchive(String username, InputStream archive, String targetFormat) throws IOException {
+        String batchId = UUID.randomUUID().toString();
+        List<String> skippedFiles = new ArrayList<>();
+        List<StoredUpload> pending = new ArrayList<>();
+        int[] queued = {0};
+
+        expandArchive(username, archive, targetFormat, batchId, pending, skippedFiles, queued);
+        return finishBatch(username, targetFormat, batchId, pending, skippedFiles, queued);
+    }
+
+    /**
+     * Queues the files still pending and describes the batch
+     */
+    private ConversionBatch finishBatch(String username, String targetFormat, String batchId,
+                                        List<StoredUpload> pending, List<String> skippedFiles, int[] queued) {
+        flush(username, targetFormat, batchId, pending, skippedFiles, queued);
+
+        if (queued[0] == 0) {
+            throw new IllegalArgumentException("No convertible documents found");
+        }
+
+        log.info("Batch {} queued: {} documents, {} skipped", batchId, queued[0], skippedFiles.size());
+        return ConversionBatch.builder()
+                .batchId(batchId)
+                .targetFormat(targetFormat)
+                .total(queued[0])
+                .pending(queued[0])
+                .skippedFiles(skippedFiles)
+                .build();
+    }
+
+    /**
+     * Returns the aggregate progress of a batch
+     * @return The batch, or null if the user has no documents in it
+     */
+    public ConversionBatch getBatch(String batchId, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+
+        long total = documentRepository.countByOwnerAndBatchId(user, batchId);
+        if (total == 0) {
+            return null;
+        }
+        long completed = documentRepository.countByOwnerAndBatchIdAndConvertedTrue(user, batchId);
+        long failed = documentRepository.countByOwnerAndBatchIdAndConversionErrorIsNotNull(user, batchId);
+
+        return ConversionBatch.builder()
+                .batchId(batchId)
+                .total(total)
+                .completed(completed)
+                .failed(failed)
+                .pending(total - completed - failed)
+                .build();
+    }
+
+    private void expandArchive(String username, InputStream archive, String targetFormat, String batchId,
+                               List<StoredUpload> pending, List<String> skippedFiles, int[] queued) throws IOException {
+        // Archives made on Korean Windows usually store names in CP949 without the UTF-8 flag
+        ZipInputStream zip = new ZipInputStream(archive, Charset.forName(archiveCharset));
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (entry.isDirectory() || entry.getName().startsWith("__MACOSX/")) {
+                continue;
+            }
+
+            String fileName = Paths.get(entry.getName()).getFileName().toString();
+            if (fileName.startsWith(".") || !isSupported(fileName, targetFormat) || queued[0] + pending.size() >= maxEntries) {
+                skippedFiles.add(entry.getName());
+                continue;
+            }
+
+            try {
+                pending.add(storeFile(new BoundedInputStream(zip, maxEntrySize.toBytes()), fileName));
+            } catch (EntryTooLargeException e) {
+                skippedFiles.add(entry.getName());
+                continue;
+            }
+            flushIfFull(username, targetFormat, batchId, pending, skippedFiles, queued);
+        }
+    }
+
+    private StoredUpload storeFile(InputStream inputStream, String fileName) throws IOException {
+        String contentType = FileDownloadService.contentTypeForFormat(getExtension(fileName));
+        return conversionService.storeUpload(inputStream, fileName, contentType);
+    }
+
+    private void flushIfFull(String username, String targetFormat, String batchId, List<StoredUpload> pending,
+                             List<String> skippedFiles, int[] queued) {
+        if (pending.size() >= flushSize) {
+            flush(username, targetFormat, batchId, pending, skippedFiles, queued);
+        }
+    }
+
+    private void flush(String username, String targetFormat, String batchId, List<StoredUpload> pending,
+                       List<String> skippedFiles, int[] queued) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            queued[0] += conversionService.queueStoredFiles(username, pending, targetFormat, batchId).size();
+        } catch (RuntimeException e) {
+            log.warn("Batch {}: could not queue a group of {} files", batchId, pending.size(), e);
+            for (StoredUpload upload : pending) {
+                conversionService.discardUpload(upload);
+                skippedFiles.add(upload.getOriginalFilename());
+            }
+        }
+        pending.clear();
+    }
+
+    private boolean isSupported(String fileName, String targetFormat) {
+        String extension = getExtension(fileName);
+        return SOURCE_FORMATS.contains(extension)
+                && conversionStrategyFactory.isConversionSupported(extension, targetFormat);
+    }
+
+    private String getExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase();
+    }
+
+    /**
+     * Reads the current archive entry without closing the archive, failing once the limit is exceeded
+     */
+    private static class BoundedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            this.in = in;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                consume(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                consume(read);
+            }
+            return read;
+        }
+
+        private void consume(long count) throws EntryTooLargeException {
+            remaining -= count;
+            if (remaining < 0) {
+                throw new EntryTooLargeException();
+            }
+        }
+
+        @Override
+        public void close() {
+            // The archive stream stays open for the next entry
+        }
+    }
+
+    private static class EntryTooLargeException extends IOException {
+        EntryTooLargeException() {
+            super("Archive entry exceeds the maximum size");
+        }
+    }
+}
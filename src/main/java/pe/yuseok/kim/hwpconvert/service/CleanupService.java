@@ -0,0 +1,140 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.model.ExpiredDocument;
+import pe.yuseok.kim.hwpconvert.repository.DocumentRepository;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.Area;
+
+/**
+ * Incremental sweeper for expired documents and abandoned uploads.
+ * Expired documents are found through the indexed expires_at column and abandoned uploads
+ * through a Redis sorted set, so each run only touches what has expired. Every run deletes a
+ * bounded number of batches: the files of a batch are deleted in parallel and its rows are
+ * removed with a single bulk delete.
+ */
+@Slf4j
+@Service
+public class CleanupService {
+
+    private final DocumentRepository documentRepository;
+    private final StorageService storageService;
+    private final UploadService uploadService;
+
+    private ExecutorService deleteExecutor;
+
+    @Value("${conversion.cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${conversion.cleanup.batch-size:200}")
+    private int batchSize;
+
+    @Value("${conversion.cleanup.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${conversion.cleanup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${conversion.cleanup.retry-minutes:60}")
+    private long retryMinutes;
+
+    public CleanupService(DocumentRepository documentRepository, StorageService storageService,
+                          UploadService uploadService) {
+        this.documentRepository = documentRepository;
+        this.storageService = storageService;
+        this.uploadService = uploadService;
+    }
+
+    @PostConstruct
+    public void init() {
+        deleteExecutor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deleteExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${conversion.cleanup.interval:60000}")
+    public void sweepExpired() {
+        if (!enabled) {
+            return;
+        }
+
+        int documents = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int swept = sweepDocumentBatch();
+            documents += swept;
+            if (swept < batchSize) {
+                break;
+            }
+        }
+
+        int uploads = uploadService.deleteExpiredUploads(batchSize);
+        if (documents > 0 || uploads > 0) {
+            log.info("Swept {} expired documents and {} abandoned uploads", documents, uploads);
+        }
+    }
+
+    /**
+     * Deletes one batch of expired documents
+     * @return The number of expired documents found
+     */
+    private int sweepDocumentBatch() {
+        List<ExpiredDocument> expired = documentRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<Boolean>> deletions = expired.stream()
+                .map(document -> CompletableFuture.supplyAsync(() -> deleteFiles(document), deleteExecutor))
+                .toList();
+
+        List<Long> deleted = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < expired.size(); i++) {
+            if (deletions.get(i).join()) {
+                deleted.add(expired.get(i).id());
+            } else {
+                failed.add(expired.get(i).id());
+            }
+        }
+
+        if (!deleted.isEmpty()) {
+            documentRepository.deleteByIds(deleted);
+        }
+        if (!failed.isEmpty()) {
+            // Retry later rather than blocking the head of the index
+            documentRepository.updateExpiresAt(failed, LocalDateTime.now().plusMinutes(retryMinutes));
+        }
+        return expired.size();
+    }
+
+    private boolean deleteFiles(ExpiredDocument document) {
+        try {
+            if (document.convertedFilename() != null) {
+                storageService.delete(Area.OUTPUT, document.convertedFilename());
+            }
+            storageService.delete(Area.TEMP, document.storedFilename());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to delete files of expired document {}", document.id(), e);
+            return false;
+        }
+    }
+}
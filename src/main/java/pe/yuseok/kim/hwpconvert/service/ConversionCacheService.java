@@ -0,0 +1,166 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Content-addressed store of converted outputs.
+ * Entries are keyed by (content hash, target format, converter version) so that
+ * uploading the same document again reuses the earlier output instead of converting it.
+ * Outputs are hard-linked between the cache and the output directory, so evicting a cache
+ * entry never removes a file that a document still points to.
+ */
+@Slf4j
+@Service
+public class ConversionCacheService {
+
+    private static final String CACHE_LRU_KEY = "conversion:cache:lru";
+    private static final String CACHE_SIZE_KEY = "conversion:cache:size";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${conversion.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${conversion.cache.dir:./cache}")
+    private String cacheDir;
+
+    @Value("${conversion.cache.max-size:1GB}")
+    private DataSize maxSize;
+
+    public ConversionCacheService(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Builds the cache key for a conversion
+     * @param contentHash SHA-256 of the uploaded file (hex)
+     * @param targetFormat The format converted to
+     * @param converterVersion Version of the strategy producing the output
+     * @return The cache key, or null if the conversion cannot be cached
+     */
+    public String cacheKey(String contentHash, String targetFormat, String converterVersion) {
+        if (!enabled || contentHash == null || targetFormat == null || converterVersion == null) {
+            return null;
+        }
+        return contentHash + "-" + targetFormat.toLowerCase() + "-v" + converterVersion.replaceAll("[^a-zA-Z0-9.]", "_");
+    }
+
+    /**
+     * Links a cached output to the given target path
+     * @param cacheKey Key returned by {@link #cacheKey}
+     * @param target Path the cached output should be made available at
+     * @return true if the output was found in the cache and linked to the target
+     */
+    public boolean linkCachedOutput(String cacheKey, Path target) {
+        if (cacheKey == null) {
+            return false;
+        }
+
+        Path cachedFile = Paths.get(cacheDir, cacheKey);
+        if (!Files.isRegularFile(cachedFile)) {
+            return false;
+        }
+
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            linkOrCopy(cachedFile, target);
+            redisTemplate.opsForZSet().add(CACHE_LRU_KEY, cacheKey, System.currentTimeMillis());
+            log.info("Conversion cache hit: {}", cacheKey);
+            return true;
+        } catch (IOException e) {
+            // The entry may have been evicted between the check and the link
+            log.warn("Failed to reuse cached output {}: {}", cacheKey, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Adds a freshly converted output to the cache and evicts the least recently used entries
+     * while the cache is larger than its configured size
+     * @param cacheKey Key returned by {@link #cacheKey}
+     * @param output The converted file
+     */
+    public void store(String cacheKey, Path output) {
+        if (cacheKey == null || !Files.isRegularFile(output)) {
+            return;
+        }
+
+        try {
+            Path cachePath = Paths.get(cacheDir);
+            Files.createDirectories(cachePath);
+
+            Path cachedFile = cachePath.resolve(cacheKey);
+            try {
+                linkOrCopy(output, cachedFile);
+            } catch (FileAlreadyExistsException e) {
+                // Another worker converted the same document concurrently
+                return;
+            }
+
+            redisTemplate.opsForValue().increment(CACHE_SIZE_KEY, Files.size(cachedFile));
+            redisTemplate.opsForZSet().add(CACHE_LRU_KEY, cacheKey, System.currentTimeMillis());
+            evictIfNeeded();
+        } catch (IOException e) {
+            log.warn("Failed to cache converted output {}: {}", cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries while the cache is too large. Each victim is claimed
+     * with ZPOPMIN, so concurrent workers never evict the same entry twice. An entry whose file cannot
+     * be deleted is put back with its score and the size is left as it is
+     */
+    private void evictIfNeeded() {
+        long maxBytes = maxSize.toBytes();
+        while (currentSize() > maxBytes) {
+            TypedTuple<Object> oldest = redisTemplate.opsForZSet().popMin(CACHE_LRU_KEY);
+            if (oldest == null || oldest.getValue() == null || oldest.getScore() == null) {
+                break;
+            }
+
+            String cacheKey = oldest.getValue().toString();
+            Path cachedFile = Paths.get(cacheDir, cacheKey);
+            long size;
+            try {
+                size = Files.exists(cachedFile) ? Files.size(cachedFile) : 0L;
+                Files.deleteIfExists(cachedFile);
+            } catch (IOException e) {
+                log.warn("Failed to evict cached output: {}", cachedFile, e);
+                redisTemplate.opsForZSet().add(CACHE_LRU_KEY, cacheKey, oldest.getScore());
+                break;
+            }
+
+            redisTemplate.opsForValue().decrement(CACHE_SIZE_KEY, size);
+            log.info("Evicted cached output: {} ({} bytes)", cacheKey, size);
+        }
+    }
+
+    private long currentSize() {
+        Object size = redisTemplate.opsForValue().get(CACHE_SIZE_KEY);
+        return size instanceof Number ? ((Number) size).longValue() : 0L;
+    }
+
+    private void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (UnsupportedOperationException | IOException e) {
+            // Hard links fail across file systems; fall back to a plain copy
+            Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+}
@@ -1,58 +1,143 @@
 package pe.yuseok.kim.hwpconvert.service;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import lombok.extern.slf4j.Slf4j;
 import pe.yuseok.kim.hwpconvert.model.ConversionResult;
 import pe.yuseok.kim.hwpconvert.model.ConversionTask;
+import pe.yuseok.kim.hwpconvert.model.StoredUpload;
+import pe.yuseok.kim.hwpconvert.model.TaskEvent;
 import pe.yuseok.kim.hwpconvert.model.entity.Document;
 import pe.yuseok.kim.hwpconvert.model.entity.User;
+import pe.yuseok.kim.hwpconvert.monitoring.ConversionMetrics;
+import pe.yuseok.kim.hwpconvert.monitoring.DataStoreCallEvent;
+import pe.yuseok.kim.hwpconvert.monitoring.PhaseClock;
+import pe.yuseok.kim.hwpconvert.monitoring.QueueMetrics;
+import pe.yuseok.kim.hwpconvert.monitoring.TaskProcessingEvent;
 import pe.yuseok.kim.hwpconvert.repository.DocumentRepository;
 import pe.yuseok.kim.hwpconvert.repository.UserRepository;
 import pe.yuseok.kim.hwpconvert.service.conversion.ConversionStrategyFactory;
 import pe.yuseok.kim.hwpconvert.service.conversion.ConversionStrategy;
+import pe.yuseok.kim.hwpconvert.service.conversion.StreamingConversionStrategy;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.Area;
 
 @Slf4j
 @Service
 public class ConversionService {
 
+    /** Detail of the completed event of tasks finished from the conversion cache */
+    private static final String CACHE_HIT = "cache-hit";
+    
     private final QueueService queueService;
     private final ConversionStrategyFactory conversionStrategyFactory;
     private final DocumentRepository documentRepository;
     private final UserRepository userRepository;
+    private final ConversionCacheService conversionCacheService;
+    private final StorageService storageService;
+    private final ConversionMetrics conversionMetrics;
+    private final QueueMetrics queueMetrics;
     
-    @Value("${conversion.temp-dir:./temp}")
-    private String tempDir;
+    @Value("${conversion.cleanup.retention-days:0}")
+    private int retentionDays;
     
-    @Value("${conversion.output-dir:./output}")
-    private String outputDir;
+    @Value("${conversion.sync.max-size:5MB}")
+    private DataSize syncMaxSize;
     
     public ConversionService(
             @Lazy QueueService queueService, 
             ConversionStrategyFactory conversionStrategyFactory,
             DocumentRepository documentRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            ConversionCacheService conversionCacheService,
+            StorageService storageService,
+            ConversionMetrics conversionMetrics,
+            QueueMetrics queueMetrics) {
         this.queueService = queueService;
         this.conversionStrategyFactory = conversionStrategyFactory;
         this.documentRepository = documentRepository;
         this.userRepository = userRepository;
+        this.conversionCacheService = conversionCacheService;
+        this.storageService = storageService;
+        this.conversionMetrics = conversionMetrics;
+        this.queueMetrics = queueMetrics;
     }
 
     public ConversionTask queueConversion(String username, MultipartFile file, String targetFormat) throws IOException {
+        validateConversion(file.getContentType(), targetFormat);
+        
+        // Save uploaded file to storage, hashing it on the way
+        StoredUpload upload;
+        try (InputStream inputStream = file.getInputStream()) {
+            upload = storeUpload(inputStream, file.getOriginalFilename(), file.getContentType());
+        }
+        
+        return queueStoredFile(username, upload, targetFormat);
+    }
+    
+    /**
+     * Converts a small upload synchronously, writing the output straight to the given stream
+     * without queueing it or storing either file
+     * @param file The upload
+     * @param targetFormat The format to convert to
+     * @param output Where the converted document is written
+     * @return The result of the conversion
+     */
+    public ConversionResult convertDirect(MultipartFile file, String targetFormat, OutputStream output) throws IOException {
+        String sourceFormat = validateConversion(file.getContentType(), targetFormat);
+        if (file.getSize() > syncMaxSize.toBytes()) {
+            throw new IllegalArgumentException("File is too large for synchronous conversion; use the queue instead");
+        }
+        
+        StreamingConversionStrategy strategy = conversionStrategyFactory.getStreamingStrategy(sourceFormat, targetFormat)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No conversion strategy found for " + sourceFormat + " to " + targetFormat));
+        
+        try (InputStream inputStream = file.getInputStream()) {
+            long start = System.nanoTime();
+            ConversionResult result = strategy.convert(inputStream, String.valueOf(file.getOriginalFilename()), output, targetFormat);
+            if (result.getPhaseDurations().isEmpty()) {
+                result.addPhaseDuration(PhaseClock.CONVERT, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            conversionMetrics.recordPhases(sourceFormat, targetFormat, result);
+            return result;
+        }
+    }
+    
+    /**
+     * Checks that a file of the given content type can be converted to the target format
+     * @param contentType Content type of the uploaded file
+     * @param targetFormat The format to convert to
+     * @return The source format
+     */
+    public String validateConversion(String contentType, String targetFormat) {
         // Validate file
-        String contentType = file.getContentType();
         if (contentType == null || !isSupportedContentType(contentType)) {
             throw new IllegalArgumentException("Unsupported file type: " + contentType);
         }
@@ -66,39 +151,176 @@ public class ConversionService {
                     "Conversion from " + sourceFormat + " to " + targetFormat + " is not supported.");
         }
         
-        // Create task
-        ConversionTask task = ConversionTask.create(
-                username,
-                file.getOriginalFilename(),
-                contentType,
-                targetFormat
-        );
-        
-        // Save uploaded file to temp directory
-        String tempFilePath = saveToTempDir(file);
+        return sourceFormat;
+    }
+    
+    /**
+     * Queues the conversion of a file that has already been stored. If the output is in the
+     * conversion cache, the task is completed right away and never enters the queue
+     * @param username The owner of the file
+     * @param upload The stored upload
+     * @param targetFormat The format to convert to
+     * @return The queued or completed task
+     */
+    public ConversionTask queueStoredFile(String username, StoredUpload upload, String targetFormat) {
+        ConversionTask task = createTask(username, upload, targetFormat, null);
         
         // Create document entity and save to database
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
         
+        Document document = createDocument(user, upload, targetFormat, null);
+        boolean cached = completeFromCache(task, document, upload);
+        documentRepository.save(document);
+        task.addEvent(TaskEvent.PERSISTED, null);
+        
+        // Store file key in Redis
+        queueService.storeFilePath(task.getId(), upload.getStorageKey());
+        
+        if (cached) {
+            task.addEvent(TaskEvent.COMPLETED, CACHE_HIT);
+            queueService.storeTask(task);
+        } else {
+            // Add task to queue
+            queueService.enqueueTask(task);
+        }
+        
+        return task;
+    }
+    
+    /**
+     * Queues a group of stored files in bulk: the documents are inserted with one saveAll
+     * and the tasks are written to Redis in pipelines rather than one round trip per command.
+     * Files whose output is in the conversion cache are completed right away and not queued
+     * @param username The owner of the files
+     * @param uploads The stored files
+     * @param targetFormat The format to convert to
+     * @param batchId The batch the files belong to
+     * @return The queued and completed tasks, in the order of the uploads
+     */
+    public List<ConversionTask> queueStoredFiles(String username, List<StoredUpload> uploads, String targetFormat,
+                                                 String batchId) {
+        if (uploads.isEmpty()) {
+            return List.of();
+        }
+        
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+        
+        List<ConversionTask> tasks = new ArrayList<>(uploads.size());
+        List<Document> documents = new ArrayList<>(uploads.size());
+        List<ConversionTask> queuedTasks = new ArrayList<>(uploads.size());
+        Map<String, String> queuedFilePaths = new LinkedHashMap<>();
+        List<ConversionTask> cachedTasks = new ArrayList<>();
+        Map<String, String> cachedFilePaths = new LinkedHashMap<>();
+        for (StoredUpload upload : uploads) {
+            ConversionTask task = createTask(username, upload, targetFormat, batchId);
+            Document document = createDocument(user, upload, targetFormat, batchId);
+            tasks.add(task);
+            documents.add(document);
+            if (completeFromCache(task, document, upload)) {
+                cachedTasks.add(task);
+                cachedFilePaths.put(task.getId(), upload.getStorageKey());
+            } else {
+                queuedTasks.add(task);
+                queuedFilePaths.put(task.getId(), upload.getStorageKey());
+            }
+        }
+        
+        documentRepository.saveAll(documents);
+        for (ConversionTask task : tasks) {
+            task.addEvent(TaskEvent.PERSISTED, null);
+        }
+        for (ConversionTask task : cachedTasks) {
+            task.addEvent(TaskEvent.COMPLETED, CACHE_HIT);
+        }
+        queueService.storeTasks(cachedTasks, cachedFilePaths);
+        queueService.enqueueTasks(queuedTasks, queuedFilePaths);
+        
+        return tasks;
+    }
+    
+    private ConversionTask createTask(String username, StoredUpload upload, String targetFormat, String batchId) {
+        validateConversion(upload.getContentType(), targetFormat);
+        
+        ConversionTask task = ConversionTask.create(
+                username,
+                upload.getOriginalFilename(),
+                upload.getContentType(),
+                targetFormat
+        );
+        task.setContentHash(upload.getContentHash());
+        task.setBatchId(batchId);
+        task.addEvent(TaskEvent.UPLOADED, upload.getUploadedAt() != null ? upload.getUploadedAt() : task.getCreatedAt(),
+                upload.getFileSize() + " bytes");
+        return task;
+    }
+    
+    private Document createDocument(User user, StoredUpload upload, String targetFormat, String batchId) {
         Document document = new Document();
-        document.setOriginalFilename(file.getOriginalFilename());
-        document.setStoredFilename(Paths.get(tempFilePath).getFileName().toString());
-        document.setOriginalFormat(sourceFormat);
+        document.setOriginalFilename(upload.getOriginalFilename());
+        document.setStoredFilename(upload.getStorageKey());
+        document.setOriginalFormat(getFormatFromContentType(upload.getContentType()));
         document.setConvertedFormat(targetFormat);
-        document.setFileSize(file.getSize());
+        document.setFileSize(upload.getFileSize());
+        document.setContentHash(upload.getContentHash());
+        document.setBatchId(batchId);
         document.setOwner(user);
         document.setDownloadToken(UUID.randomUUID().toString());
+        if (retentionDays > 0) {
+            document.setExpiresAt(document.getUploadDate().plusDays(retentionDays));
+        }
+        return document;
+    }
+    
+    /**
+     * Completes a new task from the conversion cache if the output of the same file is there
+     * already, filling in the result on the task and on its document before either is saved
+     * @param task The new task
+     * @param document The document of the task, not saved yet
+     * @param upload The stored upload
+     * @return true if the task was completed; false if it has to be converted
+     */
+    private boolean completeFromCache(ConversionTask task, Document document, StoredUpload upload) {
+        String sourceFormat = document.getOriginalFormat();
+        String targetFormat = task.getTargetFormat();
+        ConversionStrategy strategy = conversionStrategyFactory.getStrategy(sourceFormat, targetFormat).orElse(null);
+        if (strategy == null) {
+            return false;
+        }
         
-        documentRepository.save(document);
-        
-        // Store file path in Redis
-        queueService.storeFilePath(task.getId(), tempFilePath);
-        
-        // Add task to queue
-        queueService.enqueueTask(task);
+        long start = System.nanoTime();
+        String cacheKey = conversionCacheService.cacheKey(upload.getContentHash(), targetFormat, strategy.getVersion());
+        if (cacheKey == null) {
+            return false;
+        }
+        ConversionResult result = null;
+        Path workDir = null;
+        try {
+            workDir = storageService.getWorkDir();
+            result = reuseCachedOutput(cacheKey, upload.getStorageKey(), workDir.toFile(), sourceFormat, targetFormat);
+            if (result == null) {
+                return false;
+            }
+            storeOutput(result, workDir);
+        } catch (IOException e) {
+            log.warn("Failed to store cached output for task {}, converting it instead: {}", task.getId(), e.getMessage());
+            if (result != null) {
+                deleteQuietly(workDir.resolve(result.getConvertedFileName()));
+            }
+            return false;
+        }
+        result.addPhaseDuration(PhaseClock.CACHE, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        conversionMetrics.recordPhases(sourceFormat, targetFormat, result);
         
-        return task;
+        applyConversionResult(document, result);
+        task.setStatus("COMPLETED");
+        task.setProcessedAt(LocalDateTime.now());
+        task.setPhaseDurations(result.getPhaseDurations());
+        task.setResultFileUrl(result.getConvertedFileName());
+        task.setResultContentType(result.getContentType());
+        task.setResultFileSize(result.getFileSize());
+        return true;
     }
     
     public ConversionTask getTaskStatus(String taskId) {
@@ -106,100 +328,293 @@ public class ConversionService {
     }
     
     public void processTask(ConversionTask task) {
+        Path downloadedSource = null;
+        String sourceFormat = null;
+        String outcome = QueueMetrics.FAILURE;
+        long start = queueMetrics.taskStarted();
+        TaskProcessingEvent processingEvent = new TaskProcessingEvent(task.getId(), task.getTargetFormat());
+        processingEvent.begin();
         try {
-            String tempFilePath = queueService.getFilePath(task.getId());
-            File sourceFile = new File(tempFilePath);
+            // Tasks queued before the storage layer kept a full path; the file name is the key
+            DataStoreCallEvent filePathEvent = DataStoreCallEvent.start(DataStoreCallEvent.REDIS, "getFilePath", task.getId());
+            String filePath = queueService.getFilePath(task.getId());
+            filePathEvent.commit();
+            String storedFilename = Paths.get(filePath).getFileName().toString();
             
             // Update task status
             task.setStatus("PROCESSING");
             task.setProcessedAt(LocalDateTime.now());
-            queueService.updateTask(task);
+            updateTask(task);
             
             // Get source format from content type
-            String sourceFormat = getFormatFromContentType(task.getSourceFileContentType());
+            sourceFormat = getFormatFromContentType(task.getSourceFileContentType());
+            processingEvent.setSourceFormat(sourceFormat);
             String targetFormat = task.getTargetFormat();
             
-            // Create output directory if it doesn't exist
-            File outputDirectory = new File(outputDir);
-            if (!outputDirectory.exists()) {
-                outputDirectory.mkdirs();
+            // Conversions run on local files: fetch the upload if the storage is remote
+            Path workDir = storageService.getWorkDir();
+            Path sourcePath = storageService.getLocalPath(Area.TEMP, storedFilename);
+            if (sourcePath == null) {
+                downloadedSource = workDir.resolve(storedFilename);
+                storageService.download(Area.TEMP, storedFilename, downloadedSource);
+                sourcePath = downloadedSource;
             }
             
             // Process file using strategy pattern
-            ConversionResult result = convertFile(sourceFile, sourceFormat, targetFormat);
+            task.addEvent(TaskEvent.STARTED, null);
+            ConversionResult result = convertFile(sourcePath.toFile(), workDir.toFile(), task.getContentHash(),
+                    sourceFormat, targetFormat);
+            PhaseClock clock = new PhaseClock(result);
+            storeOutput(result, workDir);
+            clock.mark(PhaseClock.STORE);
+            conversionMetrics.recordPhases(sourceFormat, targetFormat, result);
+            task.setPhaseDurations(result.getPhaseDurations());
+            task.getTimeline().addAll(result.getPhaseEvents());
+            long bytesIn = Files.size(sourcePath);
+            long bytesOut = result.getFileSize() != null ? result.getFileSize() : 0;
+            queueMetrics.recordBytes(sourceFormat, targetFormat, bytesIn, bytesOut);
+            processingEvent.setBytesIn(bytesIn);
+            processingEvent.setBytesOut(bytesOut);
             
             // Update document in database if conversion succeeded
-            updateDocumentAfterConversion(sourceFile.getName(), result);
+            updateDocumentAfterConversion(task.getId(), storedFilename, result);
+            task.addEvent(TaskEvent.DB_UPDATED, null);
             
             // Update task with result
             task.setStatus(result.isSuccess() ? "COMPLETED" : "FAILED");
             if (!result.isSuccess()) {
                 task.setErrorMessage(result.getErrorMessage());
+                task.addEvent(TaskEvent.FAILED, result.getErrorMessage());
             } else {
-                task.setResultFileUrl(result.getDownloadUrl());
+                task.addEvent(TaskEvent.COMPLETED, null);
+                task.setResultFileUrl(result.getConvertedFileName());
+                task.setResultContentType(result.getContentType());
+                task.setResultFileSize(result.getFileSize());
+            }
+            updateTask(task);
+            if (result.isSuccess()) {
+                outcome = QueueMetrics.SUCCESS;
             }
-            queueService.updateTask(task);
             
         } catch (Exception e) {
             log.error("Error processing conversion task: " + task.getId(), e);
+            outcome = QueueMetrics.outcomeOf(e);
             task.setStatus("FAILED");
             task.setErrorMessage(e.getMessage());
-            queueService.updateTask(task);
+            task.addEvent(TaskEvent.FAILED, e.getMessage());
+            updateTask(task);
+        } finally {
+            queueMetrics.taskFinished(sourceFormat, task.getTargetFormat(), outcome, start);
+            processingEvent.setOutcome(outcome);
+            processingEvent.commit();
+            deleteQuietly(downloadedSource);
         }
     }
     
-    private ConversionResult convertFile(File sourceFile, String sourceFormat, String targetFormat) {
+    private ConversionResult convertFile(File sourceFile, File outputDirectory, String contentHash,
+                                         String sourceFormat, String targetFormat) {
         // Get appropriate conversion strategy
         ConversionStrategy strategy = conversionStrategyFactory.getStrategy(sourceFormat, targetFormat)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "No conversion strategy found for " + sourceFormat + " to " + targetFormat));
         
-        // Create output directory
-        File outputDirectory = new File(outputDir);
-        if (!outputDirectory.exists()) {
-            outputDirectory.mkdirs();
+        // Cache hits are normally completed when the task is queued; this catches outputs that
+        // were cached by another task while this one was waiting in the queue
+        long start = System.nanoTime();
+        String cacheKey = conversionCacheService.cacheKey(contentHash, targetFormat, strategy.getVersion());
+        ConversionResult cachedResult = reuseCachedOutput(cacheKey, sourceFile.getName(), outputDirectory,
+                sourceFormat, targetFormat);
+        if (cachedResult != null) {
+            cachedResult.addPhaseDuration(PhaseClock.CACHE, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return cachedResult;
+        }
+        
+        // Perform conversion; strategies that do not time their phases are timed as a whole
+        start = System.nanoTime();
+        ConversionResult result = strategy.convert(sourceFile, outputDirectory, targetFormat);
+        if (result.getPhaseDurations().isEmpty()) {
+            result.addPhaseDuration(PhaseClock.CONVERT, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        if (result.isSuccess() && result.getConvertedFileName() != null) {
+            conversionCacheService.store(cacheKey, outputDirectory.toPath().resolve(result.getConvertedFileName()));
+        }
+        return result;
+    }
+    
+    /**
+     * Moves the output from the work directory into storage, recording its content type and size
+     * once so downloads never have to probe the file
+     */
+    private void storeOutput(ConversionResult result, Path workDir) throws IOException {
+        if (result.getConvertedFileName() == null) {
+            return;
+        }
+        
+        Path outputPath = workDir.resolve(result.getConvertedFileName());
+        if (!result.isSuccess()) {
+            deleteQuietly(outputPath);
+            return;
         }
         
-        // Perform conversion
-        return strategy.convert(sourceFile, outputDirectory, targetFormat);
+        result.setContentType(FileDownloadService.contentTypeForFormat(result.getTargetFormat()));
+        if (Files.isRegularFile(outputPath)) {
+            result.setFileSize(Files.size(outputPath));
+            storageService.put(Area.OUTPUT, result.getConvertedFileName(), outputPath);
+        }
+        result.setDownloadUrl(result.getConvertedFileName());
     }
     
-    private void updateDocumentAfterConversion(String storedFilename, ConversionResult result) {
+    /**
+     * Links the cached output for a cache key into the output directory under a new name
+     * @param sourceName File name of the source, which the output name is derived from
+     * @return A successful result for the linked output, or null if the output is not cached
+     */
+    private ConversionResult reuseCachedOutput(String cacheKey, String sourceName, File outputDirectory,
+                                               String sourceFormat, String targetFormat) {
+        if (cacheKey == null) {
+            return null;
+        }
+        
+        String baseName = sourceName.contains(".") ? sourceName.substring(0, sourceName.lastIndexOf('.')) : sourceName;
+        String outputFileName = baseName + "_" + UUID.randomUUID().toString().substring(0, 8) + "." + targetFormat;
+        Path outputPath = Paths.get(outputDirectory.getAbsolutePath(), outputFileName);
+        
+        if (!conversionCacheService.linkCachedOutput(cacheKey, outputPath)) {
+            return null;
+        }
+        
+        ConversionResult result = new ConversionResult(sourceName, outputFileName, sourceFormat, targetFormat, true);
+        result.setDownloadUrl(outputPath.toString());
+        return result;
+    }
+    
+    /**
+     * Stores the task in Redis, recording the call as a flight recorder event
+     */
+    private void updateTask(ConversionTask task) {
+        DataStoreCallEvent event = DataStoreCallEvent.start(DataStoreCallEvent.REDIS, "updateTask", task.getId());
+        try {
+            queueService.updateTask(task);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    private void updateDocumentAfterConversion(String taskId, String storedFilename, ConversionResult result) {
         // Find document by stored filename
-        Document document = documentRepository.findAll().stream()
-                .filter(doc -> doc.getStoredFilename().contains(storedFilename))
-                .findFirst()
-                .orElse(null);
+        DataStoreCallEvent findEvent = DataStoreCallEvent.start(DataStoreCallEvent.DATABASE, "findDocument", taskId);
+        Document document = documentRepository.findByStoredFilename(storedFilename).orElse(null);
+        findEvent.commit();
         
         if (document != null) {
-            if (result.isSuccess()) {
-                document.setConvertedFilename(result.getConvertedFileName());
-                document.setConverted(true);
-                document.setConversionDate(result.getCompletionTime());
-            } else {
-                document.setConversionError(result.getErrorMessage());
-            }
+            applyConversionResult(document, result);
+            DataStoreCallEvent saveEvent = DataStoreCallEvent.start(DataStoreCallEvent.DATABASE, "saveDocument", taskId);
             documentRepository.save(document);
+            saveEvent.commit();
         } else {
             log.warn("Document not found for stored filename: {}", storedFilename);
         }
     }
     
-    private String saveToTempDir(MultipartFile file) throws IOException {
-        // Create temp directory if it doesn't exist
-        Path tempDirPath = Paths.get(tempDir);
-        Files.createDirectories(tempDirPath);
+    private void applyConversionResult(Document document, ConversionResult result) {
+        if (result.isSuccess()) {
+            document.setConvertedFilename(result.getConvertedFileName());
+            document.setConvertedContentType(result.getContentType());
+            document.setConvertedFileSize(result.getFileSize());
+            document.setConverted(true);
+            document.setConversionDate(result.getCompletionTime());
+        } else {
+            document.setConversionError(result.getErrorMessage());
+        }
+    }
+    
+    /**
+     * Writes an upload to the TEMP storage area, hashing it on the way
+     * @param inputStream The upload
+     * @param fileName The file name given by the client
+     * @param contentType Content type of the upload
+     * @return The stored upload
+     */
+    public StoredUpload storeUpload(InputStream inputStream, String fileName, String contentType) throws IOException {
+        String storageKey = newStorageKey(fileName);
+        Path workFile = storageService.getWorkDir().resolve(storageKey);
         
-        // Generate a unique file name
-        String fileName = UUID.randomUUID().toString() + "-" + file.getOriginalFilename();
-        Path filePath = tempDirPath.resolve(fileName);
+        // Stream the upload to disk, updating the digest as the bytes go by
+        MessageDigest digest = newContentDigest();
+        long size;
+        try (OutputStream outputStream = Files.newOutputStream(workFile)) {
+            size = new DigestInputStream(inputStream, digest).transferTo(outputStream);
+        } catch (IOException e) {
+            Files.deleteIfExists(workFile);
+            throw e;
+        }
         
-        // Save file
-        try (FileOutputStream outputStream = new FileOutputStream(filePath.toFile())) {
-            outputStream.write(file.getBytes());
+        storageService.put(Area.TEMP, storageKey, workFile);
+        return new StoredUpload(storageKey, fileName, contentType, size, HexFormat.of().formatHex(digest.digest()),
+                LocalDateTime.now());
+    }
+    
+    /**
+     * Moves a complete local file (e.g. a finished chunked upload) to the TEMP storage area
+     * @param file The local file, which no longer exists afterwards
+     * @param fileName The file name given by the client
+     * @param contentType Content type of the upload
+     * @return The stored upload
+     */
+    public StoredUpload storeLocalFile(Path file, String fileName, String contentType) throws IOException {
+        MessageDigest digest = newContentDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
         }
         
-        return filePath.toString();
+        long size = Files.size(file);
+        String storageKey = newStorageKey(fileName);
+        storageService.put(Area.TEMP, storageKey, file);
+        return new StoredUpload(storageKey, fileName, contentType, size, HexFormat.of().formatHex(digest.digest()),
+                LocalDateTime.now());
+    }
+    
+    /**
+     * Deletes a stored upload that will not be queued
+     * @param upload The upload returned by {@link #storeUpload} or {@link #storeLocalFile}
+     */
+    public void discardUpload(StoredUpload upload) {
+        try {
+            storageService.delete(Area.TEMP, upload.getStorageKey());
+        } catch (IOException e) {
+            log.warn("Failed to delete stored upload: {}", upload.getStorageKey(), e);
+        }
+    }
+    
+    private String newStorageKey(String fileName) {
+        return UUID.randomUUID().toString() + "-" + Paths.get(String.valueOf(fileName)).getFileName();
+    }
+    
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete work file: {}", path, e);
+        }
+    }
+    
+    /**
+     * Creates the digest used to hash uploads for the conversion cache
+     */
+    public MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
     
     private boolean isSupportedContentType(String contentType) {
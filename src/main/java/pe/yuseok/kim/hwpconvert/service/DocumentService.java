@@ -1,20 +1,24 @@
 package pe.yuseok.kim.hwpconvert.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 
 import lombok.extern.slf4j.Slf4j;
 import pe.yuseok.kim.hwpconvert.model.entity.Document;
 import pe.yuseok.kim.hwpconvert.model.entity.User;
 import pe.yuseok.kim.hwpconvert.repository.DocumentRepository;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.Area;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.StoredObject;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -23,13 +27,15 @@ import java.util.Optional;
 @Service
 public class DocumentService {
     
-    private final DocumentRepository documentRepository;
+    // Formats that are already compressed and gain nothing from deflating them again
+    private static final Set<String> PRECOMPRESSED_FORMATS = Set.of("docx", "hwpx", "pdf", "zip");
     
-    @Value("${conversion.output-dir:./output}")
-    private String outputDir;
+    private final DocumentRepository documentRepository;
+    private final StorageService storageService;
     
-    public DocumentService(DocumentRepository documentRepository) {
+    public DocumentService(DocumentRepository documentRepository, StorageService storageService) {
         this.documentRepository = documentRepository;
+        this.storageService = storageService;
     }
     
     public List<Document> getDocumentsByUser(User user) {
@@ -48,6 +54,14 @@ public class DocumentService {
         return documentRepository.findFailedDocumentsByOwner(user);
     }
     
+    public List<Document> getConvertedDocumentsByIds(List<Long> ids, User user) {
+        return documentRepository.findConvertedDocumentsByOwnerAndIds(user, ids);
+    }
+    
+    public List<Document> getConvertedDocumentsByBatch(String batchId, User user) {
+        return documentRepository.findConvertedDocumentsByOwnerAndBatchId(user, batchId);
+    }
+    
     public Optional<Document> getDocumentById(Long id) {
         return documentRepository.findById(id);
     }
@@ -56,22 +70,62 @@ public class DocumentService {
         return documentRepository.findByDownloadToken(token);
     }
     
-    public Resource loadFileAsResource(String filename) throws MalformedURLException {
-        Path filePath = Paths.get(outputDir).resolve(filename).normalize();
-        Resource resource = new UrlResource(filePath.toUri());
-        if (resource.exists()) {
-            return resource;
-        } else {
-            throw new RuntimeException("File not found: " + filename);
+    /**
+     * Streams a ZIP archive of converted documents.
+     * The archive is written entry by entry straight to the output and never held in memory or on disk.
+     * Already compressed formats are deflated at level 0: their bytes are copied into uncompressed blocks
+     * and the CRC is written after the data, so each file is read once (a STORED entry would need the CRC
+     * before the data and thus a second read).
+     * @param documents The converted documents to include
+     * @param out Where to write the archive
+     */
+    public void writeBundle(List<Document> documents, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Set<String> entryNames = new HashSet<>();
+        
+        for (Document document : documents) {
+            String key = document.getConvertedFilename();
+            StoredObject file = key != null ? storageService.stat(Area.OUTPUT, key) : null;
+            if (file == null) {
+                log.warn("Skipping missing converted file in bundle: {}", key);
+                continue;
+            }
+            
+            ZipEntry entry = new ZipEntry(uniqueEntryName(document, entryNames));
+            entry.setLastModifiedTime(FileTime.fromMillis(file.lastModified()));
+            String format = document.getConvertedFormat() != null ? document.getConvertedFormat().toLowerCase() : "";
+            zip.setLevel(PRECOMPRESSED_FORMATS.contains(format) ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED);
+            
+            zip.putNextEntry(entry);
+            try (InputStream in = storageService.open(Area.OUTPUT, key, 0, file.size())) {
+                in.transferTo(zip);
+            }
+            zip.closeEntry();
         }
+        
+        zip.finish();
+        zip.flush();
+    }
+    
+    private String uniqueEntryName(Document document, Set<String> entryNames) {
+        String baseName = document.getOriginalFilename().replaceAll("[\\\\/:]", "_");
+        if (baseName.contains(".")) {
+            baseName = baseName.substring(0, baseName.lastIndexOf('.'));
+        }
+        String extension = "." + document.getConvertedFormat();
+        
+        String name = baseName + extension;
+        for (int i = 2; !entryNames.add(name); i++) {
+            name = baseName + " (" + i + ")" + extension;
+        }
+        return name;
     }
     
     public void deleteDocument(Document document) {
         // Delete the converted file if it exists
         if (document.isConverted() && document.getConvertedFilename() != null) {
             try {
-                Path filePath = Paths.get(outputDir, document.getConvertedFilename());
-                Files.deleteIfExists(filePath);
+                storageService.delete(Area.OUTPUT, document.getConvertedFilename());
             } catch (IOException e) {
                 log.error("Error deleting converted file: {}", document.getConvertedFilename(), e);
             }
@@ -79,8 +133,7 @@ public class DocumentService {
         
         // Delete the original file if it exists
         try {
-            Path filePath = Paths.get(outputDir, document.getStoredFilename());
-            Files.deleteIfExists(filePath);
+            storageService.delete(Area.TEMP, document.getStoredFilename());
         } catch (IOException e) {
             log.error("Error deleting original file: {}", document.getStoredFilename(), e);
         }
@@ -89,14 +142,14 @@ public class DocumentService {
         documentRepository.delete(document);
     }
     
+    /**
+     * Marks documents older than the given number of days as expired in one bulk update.
+     * Their files and rows are removed in batches by the {@link CleanupService} sweeper
+     */
     public void cleanupOldDocuments(int days) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        List<Document> oldDocuments = documentRepository.findOlderThan(cutoffDate);
+        LocalDateTime now = LocalDateTime.now();
+        int expired = documentRepository.expireUploadedBefore(now.minusDays(days), now);
         
-        log.info("Found {} documents older than {} days for cleanup", oldDocuments.size(), days);
-        
-        for (Document document : oldDocuments) {
-            deleteDocument(document);
-        }
+        log.info("Marked {} documents older than {} days for cleanup", expired, days);
     }
 } 
\ No newline at end of file
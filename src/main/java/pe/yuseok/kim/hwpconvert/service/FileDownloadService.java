@@ -0,0 +1,258 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.Area;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService.StoredObject;
+
+/**
+ * Sends files to the client without copying them through the heap.
+ * Supports single byte ranges (Range / If-Range) so that interrupted downloads can be resumed
+ * and large outputs fetched in parallel segments. When the servlet container offers sendfile
+ * (Tomcat NIO without TLS) the transfer is handed to the container, otherwise the file is
+ * written with FileChannel.transferTo. Files in remote storage are streamed range by range.
+ */
+@Slf4j
+@Service
+public class FileDownloadService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "doc", "application/msword",
+            "hwp", "application/x-hwp",
+            "hwpx", "application/vnd.hancom.hwpx",
+            "pdf", "application/pdf",
+            "txt", "text/plain",
+            "zip", "application/zip");
+
+    private final StorageService storageService;
+
+    public FileDownloadService(StorageService storageService) {
+        this.storageService = storageService;
+    }
+
+    /**
+     * Returns the content type of a converted file, so it never has to be probed at download time
+     * @param format The file format (extension)
+     * @return The content type
+     */
+    public static String contentTypeForFormat(String format) {
+        if (format == null) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        return CONTENT_TYPES.getOrDefault(format.toLowerCase(), DEFAULT_CONTENT_TYPE);
+    }
+
+    /**
+     * Writes a stored file, or the byte range requested by the client, to the response.
+     * Local files are sent zero-copy, remote ones are streamed from the storage
+     * @param area The storage area of the file
+     * @param key The storage key of the file
+     * @param contentType Precomputed content type
+     * @param knownLength Precomputed file size, or null if unknown
+     * @param contentDisposition Value of the Content-Disposition header
+     */
+    public void sendStoredFile(Area area, String key, String contentType, Long knownLength, String contentDisposition,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path localPath = key != null ? storageService.getLocalPath(area, key) : null;
+        if (localPath != null) {
+            sendFile(localPath, contentType, knownLength, contentDisposition, request, response);
+            return;
+        }
+
+        StoredObject file = key != null ? storageService.stat(area, key) : null;
+        if (file == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long length = knownLength != null ? knownLength : file.size();
+        long[] range = prepareResponse(length, file.lastModified(), contentType, contentDisposition, request, response);
+        if (range == null) {
+            return;
+        }
+
+        try (InputStream in = storageService.open(area, key, range[0], range[1])) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    /**
+     * Writes a file, or the byte range requested by the client, to the response
+     * @param file The file to send
+     * @param contentType Precomputed content type
+     * @param knownLength Precomputed file size, or null if unknown
+     * @param contentDisposition Value of the Content-Disposition header
+     */
+    public void sendFile(Path file, String contentType, Long knownLength, String contentDisposition,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long length = knownLength != null ? knownLength : attributes.size();
+        long[] range = prepareResponse(length, attributes.lastModifiedTime().toMillis(), contentType, contentDisposition,
+                request, response);
+        if (range == null) {
+            return;
+        }
+        long start = range[0];
+        long count = range[1];
+        long end = start + count - 1;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The container sends the file with sendfile(2) once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * Sets the validator, range and content headers of a download
+     * @return The offset and length of the bytes to send, or null if no body has to be written
+     */
+    private long[] prepareResponse(long length, long lastModified, String contentType, String contentDisposition,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        response.setContentType(contentType != null ? contentType : DEFAULT_CONTENT_TYPE);
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            ByteRange range = parseRange(rangeHeader, length);
+            if (range == ByteRange.UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return null;
+            }
+            if (range != null) {
+                start = range.start();
+                end = range.end();
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+            return null;
+        }
+        return new long[] {start, count};
+    }
+
+    /**
+     * A Range is only honoured if If-Range is absent or still matches the file
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak validators never match for ranges
+            return ifRange.equals(etag);
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses a single "bytes=" range. Multiple ranges and malformed headers are ignored
+     * and answered with the full file, as RFC 9110 allows.
+     */
+    private ByteRange parseRange(String rangeHeader, long length) {
+        if (!rangeHeader.startsWith("bytes=") || rangeHeader.indexOf(',') >= 0) {
+            return null;
+        }
+
+        String spec = rangeHeader.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return ByteRange.UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+            if (end < start) {
+                // Not a valid range-spec, so the header is ignored
+                return null;
+            }
+            if (start >= length) {
+                return ByteRange.UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, length - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record ByteRange(long start, long end) {
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+    }
+}
@@ -1,14 +1,26 @@
 package pe.yuseok.kim.hwpconvert.service;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import pe.yuseok.kim.hwpconvert.model.ConversionTask;
+import pe.yuseok.kim.hwpconvert.model.TaskEvent;
+import pe.yuseok.kim.hwpconvert.monitoring.QueueMetrics;
+import pe.yuseok.kim.hwpconvert.monitoring.TaskDequeueEvent;
 
 @Slf4j
 @Service
@@ -18,21 +30,59 @@ public class QueueService {
     private static final String TASK_KEY_PREFIX = "conversion:task:";
     private static final String FILE_PATH_KEY_PREFIX = "conversion:file:";
     
+    /**
+     * Name of the single queue lane in metrics
+     */
+    private static final String LANE = "default";
+    
+    /**
+     * processQueue runs on the scheduler and takes one task at a time
+     */
+    private static final int WORKERS = 1;
+    
+    /**
+     * Identifies this instance in task timelines
+     */
+    private static final String WORKER_ID = workerId();
+    
     private final RedisTemplate<String, ConversionTask> conversionTaskRedisTemplate;
     private final RedisTemplate<String, Object> redisTemplate;
     private final ConversionService conversionService;
+    private final QueueMetrics queueMetrics;
 
     public QueueService(
             RedisTemplate<String, ConversionTask> conversionTaskRedisTemplate,
             RedisTemplate<String, Object> redisTemplate,
-            @Lazy ConversionService conversionService) {
+            @Lazy ConversionService conversionService,
+            QueueMetrics queueMetrics) {
         this.conversionTaskRedisTemplate = conversionTaskRedisTemplate;
         this.redisTemplate = redisTemplate;
         this.conversionService = conversionService;
+        this.queueMetrics = queueMetrics;
+    }
+    
+    @PostConstruct
+    public void registerMetrics() {
+        queueMetrics.registerQueue(LANE, this::getQueueDepth);
+        queueMetrics.registerWorkers(WORKERS);
+    }
+    
+    /**
+     * @return The number of tasks waiting in the queue, or NaN if Redis cannot be reached
+     */
+    public double getQueueDepth() {
+        try {
+            Long size = redisTemplate.opsForList().size(TASK_QUEUE_KEY);
+            return size != null ? size : Double.NaN;
+        } catch (RuntimeException e) {
+            log.debug("Could not read the queue length: {}", e.getMessage());
+            return Double.NaN;
+        }
     }
 
     public void enqueueTask(ConversionTask task) {
         String taskKey = TASK_KEY_PREFIX + task.getId();
+        task.addEvent(TaskEvent.ENQUEUED, LANE);
         
         // Store task details
         conversionTaskRedisTemplate.opsForValue().set(taskKey, task);
@@ -42,10 +92,77 @@ public class QueueService {
         
         // Add to queue
         redisTemplate.opsForList().rightPush(TASK_QUEUE_KEY, task.getId());
+        queueMetrics.recordEnqueued(LANE, 1);
         
         log.info("Task enqueued: {}", task.getId());
     }
     
+    /**
+     * Enqueues many tasks at once. Task details and file paths are sent in Redis pipelines
+     * before the queue entries, so a worker never pops an id whose task or file path is not
+     * stored yet.
+     * @param tasks The tasks to enqueue
+     * @param filePaths Stored file path of each task, keyed by task id
+     */
+    public void enqueueTasks(List<ConversionTask> tasks, Map<String, String> filePaths) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        for (ConversionTask task : tasks) {
+            task.addEvent(TaskEvent.ENQUEUED, LANE);
+        }
+        
+        storeTasks(tasks, filePaths);
+        redisTemplate.opsForList().rightPushAll(TASK_QUEUE_KEY, tasks.stream().map(ConversionTask::getId).toArray());
+        queueMetrics.recordEnqueued(LANE, tasks.size());
+        
+        log.info("Enqueued {} tasks", tasks.size());
+    }
+    
+    /**
+     * Stores a task without queueing it, for tasks that are finished when they are created
+     * (e.g. conversion cache hits)
+     * @param task The task
+     */
+    public void storeTask(ConversionTask task) {
+        conversionTaskRedisTemplate.opsForValue().set(TASK_KEY_PREFIX + task.getId(), task, 7, TimeUnit.DAYS);
+    }
+    
+    /**
+     * Stores many tasks and their file paths in Redis pipelines without queueing them
+     * @param tasks The tasks
+     * @param filePaths Stored file path of each task, keyed by task id
+     */
+    public void storeTasks(List<ConversionTask> tasks, Map<String, String> filePaths) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        
+        conversionTaskRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, ConversionTask> taskOperations = (RedisOperations<String, ConversionTask>) operations;
+                for (ConversionTask task : tasks) {
+                    taskOperations.opsForValue().set(TASK_KEY_PREFIX + task.getId(), task, 7, TimeUnit.DAYS);
+                }
+                return null;
+            }
+        });
+        
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> queueOperations = (RedisOperations<String, Object>) operations;
+                for (Map.Entry<String, String> filePath : filePaths.entrySet()) {
+                    queueOperations.opsForValue().set(FILE_PATH_KEY_PREFIX + filePath.getKey(), filePath.getValue(), 7, TimeUnit.DAYS);
+                }
+                return null;
+            }
+        });
+    }
+    
     public ConversionTask getTask(String taskId) {
         return conversionTaskRedisTemplate.opsForValue().get(TASK_KEY_PREFIX + taskId);
     }
@@ -69,15 +186,33 @@ public class QueueService {
     
     @Scheduled(fixedDelay = 5000) // Run every 5 seconds
     public void processQueue() {
+        TaskDequeueEvent dequeueEvent = new TaskDequeueEvent();
+        dequeueEvent.begin();
         String taskId = (String) redisTemplate.opsForList().leftPop(TASK_QUEUE_KEY);
         
         if (taskId != null) {
             ConversionTask task = getTask(taskId);
             
             if (task != null && "PENDING".equals(task.getStatus())) {
+                queueMetrics.recordDequeued(LANE, task.getCreatedAt());
+                dequeueEvent.setTaskId(taskId);
+                dequeueEvent.setLane(LANE);
+                if (task.getCreatedAt() != null) {
+                    dequeueEvent.setQueueWait(Duration.between(task.getCreatedAt(), LocalDateTime.now()).toMillis());
+                }
+                dequeueEvent.commit();
+                task.addEvent(TaskEvent.CLAIMED, WORKER_ID + "/" + Thread.currentThread().getName());
                 log.info("Processing task: {}", taskId);
                 conversionService.processTask(task);
             }
         }
     }
-} 
\ No newline at end of file
+    
+    private static String workerId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.model.ConversionTask;
+import pe.yuseok.kim.hwpconvert.model.StoredUpload;
+import pe.yuseok.kim.hwpconvert.model.UploadSession;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService;
+
+/**
+ * Resumable chunked uploads.
+ * Chunks are appended to a part file in the local work directory; the part file's size is the
+ * authoritative upload offset, so a chunk that was cut off half way can be resumed from
+ * whatever actually reached the disk. The conversion is queued once the last byte arrives, by the
+ * one request that claims the completion in Redis, so a retried final chunk cannot queue it twice.
+ * If queueing fails, the claim is released and the part file kept; an empty chunk at the final
+ * offset then completes the upload again.
+ */
+@Slf4j
+@Service
+public class UploadService {
+
+    private static final String UPLOAD_KEY_PREFIX = "conversion:upload:";
+    private static final String UPLOAD_EXPIRY_KEY = "conversion:upload:expiry";
+    private static final String UPLOAD_COMPLETION_KEY_PREFIX = "conversion:upload:completion:";
+    private static final String UPLOAD_DIR = "uploads";
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private final RedisTemplate<String, UploadSession> uploadSessionRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ConversionService conversionService;
+    private final StorageService storageService;
+
+    @Value("${conversion.upload.max-size:512MB}")
+    private DataSize maxSize;
+
+    @Value("${conversion.upload.expiry-hours:24}")
+    private long expiryHours;
+
+    public UploadService(RedisTemplate<String, UploadSession> uploadSessionRedisTemplate,
+                         RedisTemplate<String, Object> redisTemplate, ConversionService conversionService,
+                         StorageService storageService) {
+        this.uploadSessionRedisTemplate = uploadSessionRedisTemplate;
+        this.redisTemplate = redisTemplate;
+        this.conversionService = conversionService;
+        this.storageService = storageService;
+    }
+
+    public long getMaxSize() {
+        return maxSize.toBytes();
+    }
+
+    /**
+     * Starts a new upload
+     * @param username The owner of the upload
+     * @param fileName The file name given by the client
+     * @param contentType Content type of the file
+     * @param targetFormat The format to convert to once the upload completes
+     * @param length Total size of the file in bytes
+     * @return The new upload session
+     */
+    public UploadSession createUpload(String username, String fileName, String contentType, String targetFormat, long length)
+            throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        if (length <= 0) {
+            throw new IllegalArgumentException("Upload length must be positive");
+        }
+        conversionService.validateConversion(contentType, targetFormat);
+
+        UploadSession session = UploadSession.create(username, Paths.get(fileName).getFileName().toString(),
+                contentType, targetFormat, length);
+
+        Files.createDirectories(getUploadDir());
+        Files.createFile(getPartPath(session.getId()));
+        saveSession(session);
+
+        log.info("Upload created: {} ({} bytes)", session.getId(), length);
+        return session;
+    }
+
+    /**
+     * Looks up an upload owned by the given user
+     * @return The upload session with its offset refreshed from disk, or null if not found
+     */
+    public UploadSession getUpload(String uploadId, String username) throws IOException {
+        UploadSession session = uploadSessionRedisTemplate.opsForValue().get(UPLOAD_KEY_PREFIX + uploadId);
+        if (session == null || !session.getUserId().equals(username)) {
+            return null;
+        }
+
+        Path partPath = getPartPath(session.getId());
+        if ("UPLOADING".equals(session.getStatus()) && Files.exists(partPath)) {
+            session.setOffset(Files.size(partPath));
+        }
+        return session;
+    }
+
+    /**
+     * Appends a chunk to an upload and queues the conversion if the upload is complete
+     * @param session The upload to append to
+     * @param offset The offset the client believes the chunk starts at
+     * @param body The chunk
+     * @return The updated upload session
+     * @throws IllegalStateException if the offset does not match or another chunk is being written
+     */
+    public UploadSession appendChunk(UploadSession session, long offset, InputStream body) throws IOException {
+        if (!"UPLOADING".equals(session.getStatus())
+                || Boolean.TRUE.equals(redisTemplate.hasKey(UPLOAD_COMPLETION_KEY_PREFIX + session.getId()))) {
+            throw new IllegalStateException("Upload is already complete");
+        }
+
+        Path partPath = getPartPath(session.getId());
+        try (FileChannel channel = FileChannel.open(partPath, StandardOpenOption.WRITE);
+             FileLock lock = channel.tryLock()) {
+            if (lock == null) {
+                throw new IllegalStateException("Another chunk is being written to this upload");
+            }
+
+            long current = channel.size();
+            if (offset != current) {
+                throw new IllegalStateException("Upload offset mismatch: expected " + current + " but got " + offset);
+            }
+
+            long remaining = session.getLength() - current;
+            ReadableByteChannel source = Channels.newChannel(body);
+            long written = 0;
+            while (written < remaining) {
+                long transferred = channel.transferFrom(source, current + written,
+                        Math.min(TRANSFER_CHUNK_SIZE, remaining - written));
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+
+            if (written == remaining && body.read() != -1) {
+                channel.truncate(current);
+                throw new IllegalArgumentException("Chunk exceeds the declared upload length");
+            }
+
+            channel.force(false);
+            session.setOffset(current + written);
+        }
+
+        if (session.isComplete()) {
+            claimCompletion(session);
+            try {
+                completeUpload(session);
+            } catch (IOException | RuntimeException e) {
+                // Let the client retry the last chunk
+                redisTemplate.delete(UPLOAD_COMPLETION_KEY_PREFIX + session.getId());
+                throw e;
+            }
+        }
+        saveSession(session);
+        return session;
+    }
+
+    /**
+     * Cancels an upload and removes its part file
+     */
+    public void deleteUpload(UploadSession session) throws IOException {
+        Files.deleteIfExists(getPartPath(session.getId()));
+        uploadSessionRedisTemplate.delete(UPLOAD_KEY_PREFIX + session.getId());
+        redisTemplate.delete(UPLOAD_COMPLETION_KEY_PREFIX + session.getId());
+        redisTemplate.opsForZSet().remove(UPLOAD_EXPIRY_KEY, session.getId());
+        log.info("Upload deleted: {}", session.getId());
+    }
+
+    /**
+     * Deletes the part files of uploads that were abandoned before completion
+     * @param limit Maximum number of uploads to delete
+     * @return The number of uploads deleted
+     */
+    public int deleteExpiredUploads(int limit) {
+        Set<Object> expired = redisTemplate.opsForZSet()
+                .rangeByScore(UPLOAD_EXPIRY_KEY, 0, System.currentTimeMillis(), 0, limit);
+        if (expired == null || expired.isEmpty()) {
+            return 0;
+        }
+
+        for (Object uploadId : expired) {
+            try {
+                Files.deleteIfExists(getPartPath(uploadId.toString()));
+            } catch (IOException e) {
+                log.warn("Failed to delete expired upload: {}", uploadId, e);
+            }
+        }
+        redisTemplate.opsForZSet().remove(UPLOAD_EXPIRY_KEY, expired.toArray());
+        return expired.size();
+    }
+
+    /**
+     * Moves the upload from UPLOADING to COMPLETING with SETNX. Requests that lose, such as a
+     * retried final chunk, would otherwise queue the upload again or find its part file gone
+     * @throws IllegalStateException if another request has already claimed the completion
+     */
+    private void claimCompletion(UploadSession session) {
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(UPLOAD_COMPLETION_KEY_PREFIX + session.getId(),
+                "COMPLETING", expiryHours, TimeUnit.HOURS);
+        if (!Boolean.TRUE.equals(claimed)) {
+            throw new IllegalStateException("Upload is already complete");
+        }
+    }
+
+    /**
+     * Stores and queues a finished upload. The storage is handed a hard link to the part file (a
+     * copy where links are not possible) and the part file is only deleted once the task is
+     * persisted, so if anything fails the complete part file is still there for a retry
+     */
+    private void completeUpload(UploadSession session) throws IOException {
+        Path partPath = getPartPath(session.getId());
+        Path completedPath = getUploadDir().resolve(session.getId() + ".complete");
+        Files.deleteIfExists(completedPath);
+        try {
+            Files.createLink(completedPath, partPath);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(partPath, completedPath);
+        }
+
+        StoredUpload upload;
+        try {
+            upload = conversionService.storeLocalFile(completedPath, session.getFileName(), session.getContentType());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(completedPath);
+            throw e;
+        }
+
+        ConversionTask task;
+        try {
+            task = conversionService.queueStoredFile(session.getUserId(), upload, session.getTargetFormat());
+        } catch (RuntimeException e) {
+            conversionService.discardUpload(upload);
+            throw e;
+        }
+
+        session.setStatus("COMPLETED");
+        session.setTaskId(task.getId());
+        try {
+            Files.deleteIfExists(partPath);
+        } catch (IOException e) {
+            log.warn("Failed to delete part file of completed upload: {}", session.getId(), e);
+        }
+        log.info("Upload completed: {} -> task {}", session.getId(), task.getId());
+    }
+
+    private void saveSession(UploadSession session) {
+        String key = UPLOAD_KEY_PREFIX + session.getId();
+        uploadSessionRedisTemplate.opsForValue().set(key, session);
+        uploadSessionRedisTemplate.expire(key, expiryHours, TimeUnit.HOURS);
+
+        // Index part files by expiry time so abandoned uploads are swept without a directory scan
+        if ("UPLOADING".equals(session.getStatus())) {
+            redisTemplate.opsForZSet().add(UPLOAD_EXPIRY_KEY, session.getId(),
+                    System.currentTimeMillis() + TimeUnit.HOURS.toMillis(expiryHours));
+        } else {
+            redisTemplate.opsForZSet().remove(UPLOAD_EXPIRY_KEY, session.getId());
+        }
+    }
+
+    private Path getUploadDir() throws IOException {
+        return storageService.getWorkDir().resolve(UPLOAD_DIR);
+    }
+
+    private Path getPartPath(String uploadId) throws IOException {
+        return getUploadDir().resolve(uploadId + ".part");
+    }
+}
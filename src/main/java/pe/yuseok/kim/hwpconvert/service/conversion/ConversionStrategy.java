@@ -33,4 +33,14 @@ public interface ConversionStrategy {
      * @return true if this strategy can convert to the given target format
      */
     boolean supportsTargetFormat(String targetFormat);
+
+    /**
+     * Returns the version of the output produced by this strategy.
+     * Bump it whenever a change alters the converted output so that cached results are not reused
+     *
+     * @return The converter version
+     */
+    default String getVersion() {
+        return "1";
+    }
 } 
\ No newline at end of file
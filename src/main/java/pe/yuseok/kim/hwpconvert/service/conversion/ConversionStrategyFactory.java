@@ -39,6 +39,21 @@ public class ConversionStrategyFactory {
                 .findFirst();
     }
     
+    /**
+     * Get a strategy for the given formats that converts from a stream to a sink.
+     * File based strategies are wrapped in a {@link StreamingConversionAdapter}
+     *
+     * @param sourceFormat The format of the source file
+     * @param targetFormat The desired output format
+     * @return An Optional containing the streaming strategy, or empty if no suitable strategy exists
+     */
+    public Optional<StreamingConversionStrategy> getStreamingStrategy(String sourceFormat, String targetFormat) {
+        return getStrategy(sourceFormat, targetFormat)
+                .map(strategy -> strategy instanceof StreamingConversionStrategy streaming
+                        ? streaming
+                        : new StreamingConversionAdapter(strategy));
+    }
+    
     /**
      * Check if a conversion from source format to target format is supported
      * 
@@ -0,0 +1,235 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Checks the structure of a generated DOCX package without loading it into POI.
+ * The ZIP directory, content types and relationship parts are checked, and document.xml
+ * is scanned once with StAX, so memory use does not grow with the document.
+ */
+public final class DocxPackageValidator {
+
+    private static final String CONTENT_TYPES = "[Content_Types].xml";
+    private static final String PACKAGE_RELS = "_rels/.rels";
+    private static final String DOCUMENT = "word/document.xml";
+    private static final String DOCUMENT_RELS = "word/_rels/document.xml.rels";
+
+    private static final String MAIN_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml";
+    private static final String OFFICE_DOCUMENT_RELATIONSHIP =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument";
+    private static final String WORDPROCESSING_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private DocxPackageValidator() {
+    }
+
+    /**
+     * Validates a DOCX file
+     * @param docxFile The file to check
+     * @throws IOException If the file is not a valid DOCX package; the message names the problem
+     */
+    public static void validate(Path docxFile) throws IOException {
+        try (ZipFile zip = new ZipFile(docxFile.toFile())) {
+            for (String part : new String[] {CONTENT_TYPES, PACKAGE_RELS, DOCUMENT}) {
+                if (zip.getEntry(part) == null) {
+                    throw new IOException("Missing part " + part);
+                }
+            }
+
+            checkContentTypes(zip);
+
+            Map<String, String> packageRels = readRelationships(zip, PACKAGE_RELS, "");
+            if (!packageRels.containsValue(DOCUMENT + "#" + OFFICE_DOCUMENT_RELATIONSHIP)) {
+                throw new IOException("No officeDocument relationship to " + DOCUMENT);
+            }
+
+            Map<String, String> documentRels = zip.getEntry(DOCUMENT_RELS) != null
+                    ? readRelationships(zip, DOCUMENT_RELS, "word/")
+                    : Map.of();
+            for (String target : documentRels.values()) {
+                String part = target.substring(0, target.indexOf('#'));
+                if (!part.isEmpty() && zip.getEntry(part) == null) {
+                    throw new IOException("Relationship target " + part + " does not exist");
+                }
+            }
+
+            checkDocument(zip, documentRels.keySet());
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed XML: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Every part must have a content type, and document.xml must be the main document
+     */
+    private static void checkContentTypes(ZipFile zip) throws IOException, XMLStreamException {
+        Set<String> defaults = new HashSet<>();
+        Map<String, String> overrides = new HashMap<>();
+        try (InputStream in = zip.getInputStream(zip.getEntry(CONTENT_TYPES))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if ("Default".equals(reader.getLocalName())) {
+                        defaults.add(String.valueOf(reader.getAttributeValue(null, "Extension")).toLowerCase());
+                    } else if ("Override".equals(reader.getLocalName())) {
+                        String partName = String.valueOf(reader.getAttributeValue(null, "PartName"));
+                        overrides.put(partName.startsWith("/") ? partName.substring(1) : partName,
+                                reader.getAttributeValue(null, "ContentType"));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+
+        if (!MAIN_CONTENT_TYPE.equals(overrides.get(DOCUMENT))) {
+            throw new IOException(DOCUMENT + " is not declared as the main document");
+        }
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (entry.isDirectory() || CONTENT_TYPES.equals(name) || overrides.containsKey(name)) {
+                continue;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0 || !defaults.contains(name.substring(dot + 1).toLowerCase())) {
+                throw new IOException("No content type for part " + name);
+            }
+        }
+    }
+
+    /**
+     * Reads the internal relationships of a relationship part
+     * @param baseDir Directory the targets are relative to
+     * @return "target part#type" by relationship id
+     */
+    private static Map<String, String> readRelationships(ZipFile zip, String relsPart, String baseDir)
+            throws IOException, XMLStreamException {
+        Map<String, String> relationships = new HashMap<>();
+        try (InputStream in = zip.getInputStream(zip.getEntry(relsPart))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT || !"Relationship".equals(reader.getLocalName())) {
+                        continue;
+                    }
+                    String id = reader.getAttributeValue(null, "Id");
+                    String target = reader.getAttributeValue(null, "Target");
+                    if (id == null || target == null) {
+                        throw new IOException("Incomplete relationship in " + relsPart);
+                    }
+                    if ("External".equals(reader.getAttributeValue(null, "TargetMode"))) {
+                        relationships.put(id, "#external");
+                        continue;
+                    }
+                    String part = target.startsWith("/") ? target.substring(1) : baseDir + target;
+                    relationships.put(id, normalize(part) + "#" + reader.getAttributeValue(null, "Type"));
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return relationships;
+    }
+
+    /**
+     * document.xml must be a w:document with a body holding at least one paragraph or table,
+     * and every relationship it refers to must exist
+     */
+    private static void checkDocument(ZipFile zip, Set<String> relationshipIds) throws IOException, XMLStreamException {
+        boolean root = true;
+        boolean body = false;
+        int blocks = 0;
+        int depth = 0;
+        try (InputStream in = zip.getInputStream(zip.getEntry(DOCUMENT))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                        continue;
+                    }
+                    if (event != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    depth++;
+
+                    if (root) {
+                        if (!WORDPROCESSING_NS.equals(reader.getNamespaceURI()) || !"document".equals(reader.getLocalName())) {
+                            throw new IOException("document.xml root is not w:document");
+                        }
+                        root = false;
+                    } else if (depth == 2 && "body".equals(reader.getLocalName())) {
+                        body = true;
+                    } else if (depth == 3 && body && ("p".equals(reader.getLocalName()) || "tbl".equals(reader.getLocalName()))) {
+                        blocks++;
+                    }
+
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        if (RELATIONSHIPS_NS.equals(reader.getAttributeNamespace(i))
+                                && !relationshipIds.contains(reader.getAttributeValue(i))) {
+                            throw new IOException("Unknown relationship " + reader.getAttributeValue(i) + " in document.xml");
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+
+        if (!body) {
+            throw new IOException("document.xml has no body");
+        }
+        if (blocks == 0) {
+            throw new IOException("document.xml has no paragraphs or tables");
+        }
+    }
+
+    private static String normalize(String part) {
+        StringBuilder normalized = new StringBuilder();
+        for (String segment : part.split("/")) {
+            if (segment.isEmpty() || ".".equals(segment)) {
+                continue;
+            }
+            if ("..".equals(segment)) {
+                int slash = normalized.lastIndexOf("/");
+                normalized.setLength(Math.max(slash, 0));
+                continue;
+            }
+            if (!normalized.isEmpty()) {
+                normalized.append('/');
+            }
+            normalized.append(segment);
+        }
+        return normalized.toString();
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -13,62 +13,111 @@ import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Table;
 import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.CellSpan;
 import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tc;
 import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tr;
-import kr.dogfoot.hwpxlib.object.content.context_hpf.ManifestItem;
-import kr.dogfoot.hwpxlib.object.metainf.RootFile;
 import kr.dogfoot.hwpxlib.reader.HWPXReader;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.BinaryItemIndex;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.HwpxConversionContext;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.LazyHwpxPackage;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.PictureDisplaySizes;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.RunCoalescer;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.StreamingDocxWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
-import org.apache.poi.xwpf.usermodel.VerticalAlign;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTVMerge;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import pe.yuseok.kim.hwpconvert.model.ConversionResult;
-import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
-import org.apache.poi.xwpf.usermodel.XWPFStyles;
-import org.apache.poi.xwpf.usermodel.XWPFStyle;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTFonts;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLanguage;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocDefaults;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPrDefault;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrDefault;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+import pe.yuseok.kim.hwpconvert.monitoring.ImageEmbeddingEvent;
+import pe.yuseok.kim.hwpconvert.monitoring.PhaseClock;
+import pe.yuseok.kim.hwpconvert.monitoring.TableConversionEvent;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblPr;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Strategy for converting HWPX files to DOCX format
  */
 @Slf4j
 @Component
-public class HwpxToDocxStrategy implements ConversionStrategy {
+public class HwpxToDocxStrategy implements ConversionStrategy, StreamingConversionStrategy {
 
     private static final List<String> SUPPORTED_SOURCE_FORMATS = Arrays.asList("hwpx");
     private static final List<String> SUPPORTED_TARGET_FORMATS = Arrays.asList("docx");
+    private static final String CONVERTER_VERSION = "8";
+
+    private final ImageOptimizer imageOptimizer;
+
+    @Value("${conversion.hwpx.parallel-sections:false}")
+    private boolean parallelSections;
+
+    @Value("${conversion.hwpx.section-parallelism:0}")
+    private int sectionParallelism;
+
+    @Value("${conversion.hwpx.full-parse-rate:0.01}")
+    private double fullParseRate;
+
+    @Value("${conversion.hwpx.streaming-writer:false}")
+    private boolean streamingWriter;
+
+    @Value("${conversion.hwpx.lazy-reader:false}")
+    private boolean lazyReader;
+
+    private ForkJoinPool sectionPool;
+
+    public HwpxToDocxStrategy(ImageOptimizer imageOptimizer) {
+        this.imageOptimizer = imageOptimizer;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (parallelSections) {
+            int parallelism = sectionParallelism > 0 ? sectionParallelism : Runtime.getRuntime().availableProcessors();
+            sectionPool = new ForkJoinPool(parallelism);
+            log.info("Converting HWPX sections in parallel on {} threads", parallelism);
+        }
+        if (lazyReader && imageOptimizer.isEnabled()) {
+            log.warn("Image optimization is not applied to HWPX files read with the lazy reader");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sectionPool != null) {
+            sectionPool.shutdown();
+        }
+    }
 
     @Override
     public boolean supportsSourceFormat(String sourceFormat) {
@@ -80,6 +129,15 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
         return SUPPORTED_TARGET_FORMATS.contains(targetFormat.toLowerCase());
     }
 
+    @Override
+    public String getVersion() {
+        // Optimized images change the output, so their settings are part of the version
+        if (imageOptimizer.isEnabled() && !lazyReader) {
+            return CONVERTER_VERSION + "." + imageOptimizer.getOutputSettings();
+        }
+        return CONVERTER_VERSION;
+    }
+
     @Override
     public ConversionResult convert(File sourceFile, File outputDirectory, String targetFormat) {
         log.info("Converting HWPX file to DOCX: {}", sourceFile.getName());
@@ -94,29 +152,16 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
         result.setConvertedFileName(outputFileName);
         result.setDownloadUrl(outputPath.toString());
 
-        try (XWPFDocument docxDocument = new XWPFDocument()) {
-            // Set document properties to ensure valid metadata
-            docxDocument.getProperties().getCoreProperties().setCreator("HwpxToDocx Converter");
-            docxDocument.getProperties().getCoreProperties().setCreated(Optional.of(new Date()));
-            
-            HWPXFile hwpxFile = HWPXReader.fromFile(sourceFile);
-            
-            // Process the document structure
-            processDocument(hwpxFile, docxDocument);
-            
-            // Ensure all document parts are properly connected
-            docxDocument.enforceUpdateFields();
-            
-            // Validate document before saving
-            validateDocument(docxDocument);
-            
+        try {
+            PhaseClock clock = new PhaseClock(result);
             try (FileOutputStream out = new FileOutputStream(outputPath.toFile())) {
-                docxDocument.write(out);
-                out.flush();
+                writeDocx(sourceFile, out, clock);
             }
             
             // Verify the created file is valid
-            if (verifyDocxFile(outputPath.toFile())) {
+            boolean valid = verifyDocxFile(outputPath.toFile());
+            clock.mark(PhaseClock.VERIFY);
+            if (valid) {
                 log.info("Successfully converted HWPX to DOCX: {}", outputFileName);
                 result.setSuccess(true);
                 result.setCompletionTime(LocalDateTime.now());
@@ -153,16 +198,217 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
         return result;
     }
     
+    /**
+     * Converts an HWPX stream, writing the DOCX straight to the sink.
+     * The HWPX package is a ZIP that is read with random access, so the input is spooled to a
+     * temp file; the output never touches the disk.
+     */
+    @Override
+    public ConversionResult convert(InputStream input, String sourceFileName, OutputStream output, String targetFormat) {
+        log.info("Converting HWPX stream to DOCX: {}", sourceFileName);
+        ConversionResult result = new ConversionResult();
+        result.setSourceFileName(sourceFileName);
+        result.setSourceFormat("hwpx");
+        result.setTargetFormat(targetFormat);
+        
+        Path spooledInput = null;
+        try {
+            spooledInput = Files.createTempFile("hwpx-", ".hwpx");
+            Files.copy(input, spooledInput, StandardCopyOption.REPLACE_EXISTING);
+            
+            writeDocx(spooledInput.toFile(), output, new PhaseClock(result));
+            output.flush();
+            
+            result.setSuccess(true);
+            result.setCompletionTime(LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Error converting HWPX stream {} to DOCX", sourceFileName, e);
+            result.setSuccess(false);
+            result.setErrorMessage("Error converting HWPX to DOCX: " + e.getMessage());
+        } finally {
+            if (spooledInput != null) {
+                spooledInput.toFile().delete();
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Reads an HWPX file, either completely or section by section, and writes it as DOCX to the given stream.
+     * Documents with a single section gain nothing from the lazy reader and are read completely
+     */
+    private void writeDocx(File sourceFile, OutputStream out, PhaseClock clock) throws Exception {
+        if (!lazyReader || LazyHwpxPackage.countSections(sourceFile.toPath()) < 2) {
+            HWPXFile hwpxFile = HWPXReader.fromFile(sourceFile);
+            clock.mark(PhaseClock.READ);
+            writeDocx(hwpxFile, null, out, clock);
+            return;
+        }
+        try (LazyHwpxPackage hwpxPackage = LazyHwpxPackage.open(sourceFile.toPath())) {
+            clock.mark(PhaseClock.READ);
+            writeDocx(hwpxPackage.getHwpxFile(), hwpxPackage, out, clock);
+        }
+    }
+
+    /**
+     * Builds the DOCX document for an HWPX file and writes it to the given stream
+     * @param hwpxPackage The package the sections are read from one by one, or null if hwpxFile holds them
+     * @param clock Records the duration of each phase
+     */
+    private void writeDocx(HWPXFile hwpxFile, LazyHwpxPackage hwpxPackage, OutputStream out, PhaseClock clock)
+            throws IOException {
+        try (XWPFDocument docxDocument = new XWPFDocument()) {
+            // Set document properties to ensure valid metadata
+            docxDocument.getProperties().getCoreProperties().setCreator("HwpxToDocx Converter");
+            docxDocument.getProperties().getCoreProperties().setCreated(Optional.of(new Date()));
+            
+            HwpxConversionContext context = hwpxPackage != null
+                    ? new HwpxConversionContext(hwpxFile, docxDocument, hwpxPackage.getBinaryItemIndex())
+                    : new HwpxConversionContext(hwpxFile, docxDocument);
+            if (imageOptimizer.isEnabled() && hwpxPackage == null) {
+                imageOptimizer.optimize(context.getBinaryItemIndex(), PictureDisplaySizes.collect(hwpxFile));
+                clock.mark(PhaseClock.IMAGES);
+            }
+
+            if (streamingWriter) {
+                // The body is written out as it is produced; docxDocument keeps styles and images only
+                StreamingDocxWriter writer = new StreamingDocxWriter(out);
+                processDocument(context, docxDocument, writer, hwpxPackage);
+                docxDocument.enforceUpdateFields();
+                clock.mark(PhaseClock.TRANSFORM);
+                writer.finish(docxDocument);
+                clock.mark(PhaseClock.WRITE);
+                return;
+            }
+
+            // Process the document structure
+            processDocument(context, docxDocument, null, hwpxPackage);
+            
+            // Ensure all document parts are properly connected
+            docxDocument.enforceUpdateFields();
+            clock.mark(PhaseClock.TRANSFORM);
+            
+            // Validate document before saving
+            validateDocument(docxDocument);
+            clock.mark(PhaseClock.VALIDATE);
+            
+            docxDocument.write(out);
+            clock.mark(PhaseClock.WRITE);
+        }
+    }
+
+    /**
+     * The transform phase on its own: converts the content of an HWPX document into a new DOCX
+     * document, without image optimization or streaming. Used by the benchmarks
+     */
+    void transform(HWPXFile hwpxFile, XWPFDocument docxDocument) throws IOException {
+        processDocument(new HwpxConversionContext(hwpxFile, docxDocument), docxDocument, null, null);
+        docxDocument.enforceUpdateFields();
+    }
+    
     /**
      * Process the entire HWPX document structure
+     * @param writer Receives the body as it is produced, or null to build the whole body in docxDocument
+     * @param hwpxPackage The package to read the sections from one by one, or null to take them from the context
      */
-    private void processDocument(HWPXFile hwpxFile, XWPFDocument docxDocument) {
+    private void processDocument(HwpxConversionContext context, XWPFDocument docxDocument,
+                                 StreamingDocxWriter writer, LazyHwpxPackage hwpxPackage) throws IOException {
         // Setup document with basic style definitions for better compatibility
         setupBasicDocumentStyles(docxDocument);
         
-        // Iterate through sections
-        for (SectionXMLFile section : hwpxFile.sectionXMLFileList().items()) {
-            processSection(section, docxDocument, hwpxFile);
+        List<SectionXMLFile> sections = new ArrayList<>();
+        if (hwpxPackage == null) {
+            context.getHwpxFile().sectionXMLFileList().items().forEach(sections::add);
+        }
+        if (hwpxPackage != null || sectionPool == null || sections.size() < 2) {
+            // Iterate through sections; sections of a lazily read package are only held while they are converted
+            for (SectionXMLFile section : hwpxPackage != null ? hwpxPackage.sections() : sections) {
+                if (writer == null) {
+                    processSection(section, docxDocument, context);
+                    continue;
+                }
+                for (Para para : section.paras()) {
+                    processParagraph(para, docxDocument, context);
+                    writer.writeBody(docxDocument);
+                }
+            }
+            return;
+        }
+
+        // Transform the sections in parallel into fragments, then append them in document order
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<ForkJoinTask<XWPFDocument>> fragments = new ArrayList<>();
+        for (SectionXMLFile section : sections) {
+            fragments.add(sectionPool.submit(() -> abandoned.get() ? null : transformSection(section, context)));
+        }
+        int next = 0;
+        try {
+            for (; next < fragments.size(); next++) {
+                try (XWPFDocument fragmentDocument = fragments.get(next).join()) {
+                    if (writer != null) {
+                        writer.writeBody(fragmentDocument);
+                    } else {
+                        appendFragment(docxDocument, fragmentDocument);
+                    }
+                }
+            }
+        } finally {
+            // After a failure, sections that have not started are skipped. Running ones still use the
+            // shared context and the document, so they are waited for before the document is closed
+            abandoned.set(true);
+            for (int i = next + 1; i < fragments.size(); i++) {
+                ForkJoinTask<XWPFDocument> fragment = fragments.get(i);
+                fragment.quietlyJoin();
+                if (!fragment.isCompletedAbnormally()) {
+                    closeQuietly(fragment.getRawResult());
+                }
+            }
+        }
+    }
+
+    private void closeQuietly(XWPFDocument fragment) {
+        if (fragment == null) {
+            return;
+        }
+        try {
+            fragment.close();
+        } catch (IOException e) {
+            log.debug("Could not close section fragment: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Converts one section into a scratch document. Styles and images are registered in the
+     * target document through the shared context, so the fragment only holds body elements
+     */
+    private XWPFDocument transformSection(SectionXMLFile section, HwpxConversionContext context) {
+        XWPFDocument fragment = new XWPFDocument();
+        processSection(section, fragment, context);
+        return fragment;
+    }
+
+    /**
+     * Appends copies of the paragraphs and tables of a fragment to the document. The copies are
+     * created through the XWPFDocument API, so they are part of its paragraph, table and body
+     * element lists like everything converted on the calling thread
+     */
+    private void appendFragment(XWPFDocument docxDocument, XWPFDocument fragment) {
+        for (IBodyElement element : fragment.getBodyElements()) {
+            if (element instanceof XWPFParagraph paragraph) {
+                // Converted paragraphs only hold properties and runs
+                XWPFParagraph copy = docxDocument.createParagraph();
+                if (paragraph.getCTP().isSetPPr()) {
+                    copy.getCTP().setPPr(paragraph.getCTP().getPPr());
+                }
+                for (XWPFRun run : paragraph.getRuns()) {
+                    copy.createRun().getCTR().set(run.getCTR());
+                }
+            } else if (element instanceof XWPFTable table) {
+                // The table is wrapped after its XML is copied, so that its rows and cells are read from it
+                CTTbl ctTbl = docxDocument.getDocument().getBody().addNewTbl();
+                ctTbl.set(table.getCTTbl());
+                docxDocument.insertTable(docxDocument.getBodyElements().size(), new XWPFTable(ctTbl, docxDocument));
+            }
         }
     }
     
@@ -206,7 +452,7 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
                 docxDocument.removeBodyElement(paraPosition);
             }
             
-            log.info("Added basic document styles for better compatibility");
+            log.debug("Added basic document styles for better compatibility");
         } catch (Exception e) {
             log.warn("Could not set up basic document styles: {}", e.getMessage());
         }
@@ -215,359 +461,74 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
     /**
      * Process a section of the HWPX document
      */
-    private void processSection(SectionXMLFile section, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+    private void processSection(SectionXMLFile section, XWPFDocument docxDocument, HwpxConversionContext context) {
         // Iterate through paragraphs in the section
         for (Para para : section.paras()) {
-            processParagraph(para, docxDocument, hwpxFile);
+            processParagraph(para, docxDocument, context);
         }
     }
     
     /**
      * Process a paragraph within the document
      */
-    private void processParagraph(Para para, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+    private void processParagraph(Para para, XWPFDocument docxDocument, HwpxConversionContext context) {
         XWPFParagraph docxParagraph = docxDocument.createParagraph();
         
-        // Apply paragraph properties (alignment, indentation, spacing) from para.paraPrIDRef()
-        if (para.paraPrIDRef() != null && hwpxFile.headerXMLFile() != null 
-                && hwpxFile.headerXMLFile().refList() != null && hwpxFile.headerXMLFile().refList().paraProperties() != null) {
-            
-            // Find matching ParaPr by ID
-            for (kr.dogfoot.hwpxlib.object.content.header_xml.references.ParaPr paraPr : 
-                    hwpxFile.headerXMLFile().refList().paraProperties().items()) {
-                
-                if (para.paraPrIDRef().equals(paraPr.id())) {
-                    // Apply alignment
-                    if (paraPr.align() != null) {
-                        // Set horizontal alignment
-                        if (paraPr.align().horizontal() != null) {
-                            switch (paraPr.align().horizontal()) {
-                                case LEFT:
-                                    docxParagraph.setAlignment(org.apache.poi.xwpf.usermodel.ParagraphAlignment.LEFT);
-                                    break;
-                                case CENTER:
-                                    docxParagraph.setAlignment(org.apache.poi.xwpf.usermodel.ParagraphAlignment.CENTER);
-                                    break;
-                                case RIGHT:
-                                    docxParagraph.setAlignment(org.apache.poi.xwpf.usermodel.ParagraphAlignment.RIGHT);
-                                    break;
-                                case JUSTIFY:
-                                    docxParagraph.setAlignment(org.apache.poi.xwpf.usermodel.ParagraphAlignment.BOTH);
-                                    break;
-                                case DISTRIBUTE:
-                                    docxParagraph.setAlignment(org.apache.poi.xwpf.usermodel.ParagraphAlignment.DISTRIBUTE);
-                                    break;
-                                default:
-                                    docxParagraph.setAlignment(org.apache.poi.xwpf.usermodel.ParagraphAlignment.LEFT);
-                                    break;
-                            }
-                        }
-                    }
-                    
-                    // Apply margins/indentation
-                    if (paraPr.margin() != null) {
-                        // Convert HWP units (1/7200 inch) to OOXML units (1/20 pt)
-                        final double HWP_TO_DXA = 635.0 / 7200.0 * 20.0;
-                        
-                        // Left indent
-                        if (paraPr.margin().intent() != null && paraPr.margin().intent().value() != null) {
-                            int leftIndent = (int)(paraPr.margin().intent().value() * HWP_TO_DXA);
-                            docxParagraph.setIndentationLeft(leftIndent);
-                        }
-                        
-                        // Right indent
-                        if (paraPr.margin().right() != null && paraPr.margin().right().value() != null) {
-                            int rightIndent = (int)(paraPr.margin().right().value() * HWP_TO_DXA);
-                            docxParagraph.setIndentationRight(rightIndent);
-                        }
-                        
-                        // First line indent (or hanging indent)
-                        if (paraPr.margin().prev() != null && paraPr.margin().prev().value() != null) {
-                            int firstLineIndent = (int)(paraPr.margin().prev().value() * HWP_TO_DXA);
-                            docxParagraph.setIndentationFirstLine(firstLineIndent);
-                        }
-                    }
-                    
-                    // Apply line spacing
-                    if (paraPr.lineSpacing() != null) {
-                        if (paraPr.lineSpacing().type() != null) {
-                            switch (paraPr.lineSpacing().type()) {
-                                case PERCENT:
-                                    // Set line spacing as a percentage of normal
-                                    if (paraPr.lineSpacing().value() != null) {
-                                        double lineSpacing = paraPr.lineSpacing().value() / 100.0;
-                                        docxParagraph.setSpacingLineRule(org.apache.poi.xwpf.usermodel.LineSpacingRule.AUTO);
-                                        docxParagraph.setSpacingBetween(lineSpacing);
-                                    }
-                                    break;
-                                case FIXED:
-                                    // Set fixed line spacing
-                                    if (paraPr.lineSpacing().value() != null) {
-                                        double lineSpacing = paraPr.lineSpacing().value() / 100.0;
-                                        docxParagraph.setSpacingLineRule(org.apache.poi.xwpf.usermodel.LineSpacingRule.EXACT);
-                                        docxParagraph.setSpacingBetween(lineSpacing);
-                                    }
-                                    break;
-                                case AT_LEAST:
-                                    // Set minimum line spacing
-                                    if (paraPr.lineSpacing().value() != null) {
-                                        double lineSpacing = paraPr.lineSpacing().value() / 100.0;
-                                        docxParagraph.setSpacingLineRule(org.apache.poi.xwpf.usermodel.LineSpacingRule.AT_LEAST);
-                                        docxParagraph.setSpacingBetween(lineSpacing);
-                                    }
-                                    break;
-                                case BETWEEN_LINES:
-                                    // Handle between lines spacing
-                                    if (paraPr.lineSpacing().value() != null) {
-                                        double lineSpacing = paraPr.lineSpacing().value() / 100.0;
-                                        docxParagraph.setSpacingLineRule(org.apache.poi.xwpf.usermodel.LineSpacingRule.AUTO);
-                                        docxParagraph.setSpacingBetween(lineSpacing);
-                                    }
-                                    break;
-                            }
-                        }
-                    }
-                    
-                    // Apply paragraph spacing (before and after)
-                    if (paraPr.margin() != null) {
-                        final double HWP_TO_DXA = 635.0 / 7200.0 * 20.0;
-                        
-                        // Spacing before paragraph
-                        if (paraPr.margin().prev() != null) {
-                            int spacingBefore = (int)(paraPr.margin().prev().value() * HWP_TO_DXA);
-                            docxParagraph.setSpacingBefore(spacingBefore);
-                        }
-                        
-                        // Spacing after paragraph
-                        if (paraPr.margin().next() != null) {
-                            int spacingAfter = (int)(paraPr.margin().next().value() * HWP_TO_DXA);
-                            docxParagraph.setSpacingAfter(spacingAfter);
-                        }
-                    }
-                    
-                    // Break from the loop once we've found and applied the paragraph properties
-                    break;
-                }
-            }
+        // Paragraph properties (alignment, indentation, spacing) come from the style of para.paraPrIDRef()
+        String paragraphStyleId = context.getStyleRegistry().paragraphStyleId(para.paraPrIDRef());
+        if (paragraphStyleId != null) {
+            docxParagraph.setStyle(paragraphStyleId);
         }
 
-        // Iterate through runs in the paragraph
+        // Iterate through runs in the paragraph, merging adjacent text with the same formatting
+        RunCoalescer coalescer = new RunCoalescer(docxParagraph);
         for (Run run : para.runs()) {
-            processRun(run, docxParagraph, docxDocument, hwpxFile);
+            processRun(run, docxParagraph, coalescer, docxDocument, context);
         }
+        coalescer.flush();
     }
     
     /**
      * Process a run within a paragraph
      */
-    private void processRun(Run run, XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
-        // Apply character properties (font, size, bold, italic) from run.charPrIDRef()
-        XWPFRun defaultRun = null;
-        
-        if (run.charPrIDRef() != null && hwpxFile.headerXMLFile() != null 
-                && hwpxFile.headerXMLFile().refList() != null && hwpxFile.headerXMLFile().refList().charProperties() != null) {
-            
-            // Find matching CharPr by ID
-            for (kr.dogfoot.hwpxlib.object.content.header_xml.references.CharPr charPr : 
-                    hwpxFile.headerXMLFile().refList().charProperties().items()) {
-                
-                if (run.charPrIDRef().equals(charPr.id())) {
-                    // Create a default run with the character properties
-                    defaultRun = docxParagraph.createRun();
-                    
-                    // Apply font family
-                    if (charPr.fontRef() != null) {
-                        // Try to get the font for the current language or default to hangul
-                        String fontName = null;
-                        
-                        // For Korean text, prioritize Hangul font to ensure proper rendering
-                        if (charPr.fontRef().hangul() != null) {
-                            fontName = charPr.fontRef().hangul();
-                        } else if (charPr.fontRef().latin() != null) {
-                            fontName = charPr.fontRef().latin();
-                        } else if (charPr.fontRef().hanja() != null) {
-                            fontName = charPr.fontRef().hanja();
-                        } else if (charPr.fontRef().japanese() != null) {
-                            fontName = charPr.fontRef().japanese();
-                        } else if (charPr.fontRef().other() != null) {
-                            fontName = charPr.fontRef().other();
-                        }
-                        
-                        if (fontName != null) {
-                            defaultRun.setFontFamily(fontName);
-                            // Set the East Asian font name explicitly to ensure proper Korean rendering
-                            try {
-                                defaultRun.getCTR().addNewRPr().addNewRFonts().setEastAsia(fontName);
-                            } catch (Exception e) {
-                                log.warn("Could not set East Asian font: {}", e.getMessage());
-                            }
-                        }
-                    }
-                    
-                    // Apply font size
-                    if (charPr.height() != null) {
-                        // Logs for debugging
-                        log.info("Processing HWP font height value: {}", charPr.height());
-                        
-                        // For Korean HWP files, typical values are 100 = 10pt, 90 = 9pt, etc.
-                        // Divide by 10 to get the point size
-                        int fontSizePoints = Math.round(charPr.height() / 10.0f);
-                        
-                        // Ensure font size is reasonable - set minimum and maximum bounds
-                        if (fontSizePoints < 6) fontSizePoints = 10; // Default to 10pt if too small
-                        if (fontSizePoints > 72) fontSizePoints = 72; // Cap at 72pt
-                        
-                        log.info("Setting font size to: {} points", fontSizePoints);
-                        defaultRun.setFontSize(fontSizePoints);
-                    }
-                    
-                    // Apply text color
-                    if (charPr.textColor() != null) {
-                        // HWP color format is #RRGGBB
-                        String colorStr = charPr.textColor();
-                        if (colorStr.startsWith("#") && colorStr.length() == 7) {
-                            defaultRun.setColor(colorStr.substring(1));
-                        }
-                    }
-                    
-                    // Apply bold
-                    if (charPr.bold() != null) {
-                        // HWP bold property might be a boolean value or an object
-                        boolean isBold = charPr.bold() != null && 
-                                       ("true".equalsIgnoreCase(charPr.bold().toString()) || 
-                                        "yes".equalsIgnoreCase(charPr.bold().toString()));
-                        defaultRun.setBold(isBold);
-                    } else {
-                        defaultRun.setBold(false);
-                    }
-                    
-                    // Apply italic
-                    if (charPr.italic() != null) {
-                        // HWP italic property might be a boolean value or an object
-                        boolean isItalic = charPr.italic() != null && 
-                                         ("true".equalsIgnoreCase(charPr.italic().toString()) || 
-                                          "yes".equalsIgnoreCase(charPr.italic().toString()));
-                        defaultRun.setItalic(isItalic);
-                    } else {
-                        defaultRun.setItalic(false);
-                    }
-                    
-                    // Apply underline - only if explicitly enabled
-                    if (charPr.underline() != null && charPr.underline().type() != null) {
-                        // Set underline based on type
-                        String ulType = charPr.underline().type().toString();
-                        if ("solid".equalsIgnoreCase(ulType) || "single".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.SINGLE);
-                        } else if ("double".equalsIgnoreCase(ulType) || "db".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.DOUBLE);
-                        } else if ("dotted".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.DOTTED);
-                        } else if ("dashed".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.DASH);
-                        } else if ("dash-dot".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.DOT_DASH);
-                        } else if ("dash-dot-dot".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.DOT_DOT_DASH);
-                        } else if ("wave".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.WAVE);
-                        } else if ("thick".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.THICK);
-                        } else if ("none".equalsIgnoreCase(ulType)) {
-                            defaultRun.setUnderline(UnderlinePatterns.NONE);
-                        }
-                        
-                        // If there's a color specified for the underline
-                        if (charPr.underline().color() != null) {
-                            String ulColor = charPr.underline().color();
-                            if (ulColor.startsWith("#") && ulColor.length() == 7) {
-                                // Set underline color if possible - not directly supported in XWPFRun
-                                try {
-                                    // Add the underline color via direct CTR access
-                                    if (defaultRun.getCTR() != null) {
-                                        org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR ctr = defaultRun.getCTR();
-                                        if (!ctr.isSetRPr()) {
-                                            ctr.addNewRPr();
-                                        }
-                                        
-                                        org.openxmlformats.schemas.wordprocessingml.x2006.main.CTUnderline underline = 
-                                            ctr.getRPr().addNewU();
-                                        underline.setVal(org.openxmlformats.schemas.wordprocessingml.x2006.main.STUnderline.SINGLE);
-                                        underline.setColor(ulColor.substring(1));
-                                    }
-                                } catch (Exception e) {
-                                    log.warn("Could not set underline color: {}", e.getMessage());
-                                }
-                            }
-                        }
-                    } else {
-                        // Explicitly set no underline if not specified
-                        defaultRun.setUnderline(UnderlinePatterns.NONE);
-                    }
-                    
-                    // Apply strikethrough
-                    if (charPr.strikeout() != null) {
-                        // HWP strikeout property might be a boolean value or an object
-                        boolean isStrikeout = charPr.strikeout() != null && 
-                                            ("true".equalsIgnoreCase(charPr.strikeout().toString()) || 
-                                             "yes".equalsIgnoreCase(charPr.strikeout().toString()));
-                        defaultRun.setStrikeThrough(isStrikeout);
-                    } else {
-                        defaultRun.setStrikeThrough(false);
-                    }
-                    
-                    // Apply superscript
-                    if (charPr.supscript() != null) {
-                        // HWP supscript property might be a boolean value or an object
-                        boolean isSupscript = ("true".equalsIgnoreCase(charPr.supscript().toString()) || 
-                                              "yes".equalsIgnoreCase(charPr.supscript().toString()));
-                        if (isSupscript) {
-                            defaultRun.setSubscript(VerticalAlign.SUPERSCRIPT);
-                        }
-                    }
-                    
-                    // Apply subscript
-                    if (charPr.subscript() != null) {
-                        // HWP subscript property might be a boolean value or an object
-                        boolean isSubscript = ("true".equalsIgnoreCase(charPr.subscript().toString()) || 
-                                              "yes".equalsIgnoreCase(charPr.subscript().toString()));
-                        if (isSubscript) {
-                            defaultRun.setSubscript(VerticalAlign.SUBSCRIPT);
-                        }
-                    }
-                    
-                    break;
-                }
-            }
-        }
+    private void processRun(Run run, XWPFParagraph docxParagraph, RunCoalescer coalescer, XWPFDocument docxDocument,
+                            HwpxConversionContext context) {
+        // Character properties (font, size, bold, italic) come from the style of run.charPrIDRef()
+        String characterStyleId = context.getStyleRegistry().characterStyleId(run.charPrIDRef());
 
         for (RunItem item : run.runItems()) {
             if (item instanceof T) {
-                processTextComplex((T) item, docxParagraph, defaultRun);
-            } else if (item instanceof Table) {
-                processTable((Table) item, docxDocument, docxParagraph, hwpxFile);
+                processTextComplex((T) item, coalescer, characterStyleId);
+                continue;
+            }
+
+            // Objects and controls are never merged into the surrounding text
+            coalescer.flush();
+            if (item instanceof Table) {
+                processTable((Table) item, docxDocument, docxParagraph, context);
             } else if (item instanceof Picture) {
-                processPicture((Picture) item, docxParagraph, docxDocument, hwpxFile);
+                processPicture((Picture) item, docxParagraph, docxDocument, context);
             } else if (item instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Line) {
                 processLine((kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Line) item, 
-                        docxParagraph, docxDocument, hwpxFile);
+                        docxParagraph, docxDocument, context);
             } else if (item instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Rectangle) {
                 processRectangle((kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Rectangle) item, 
-                        docxParagraph, docxDocument, hwpxFile);
+                        docxParagraph, docxDocument, context);
             } else if (item instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Ellipse) {
                 processEllipse((kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Ellipse) item, 
-                        docxParagraph, docxDocument, hwpxFile);
+                        docxParagraph, docxDocument, context);
             } else if (item instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Arc) {
                 processArc((kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Arc) item, 
-                        docxParagraph, docxDocument, hwpxFile);
+                        docxParagraph, docxDocument, context);
             } else if (item instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Polygon) {
                 processPolygon((kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Polygon) item, 
-                        docxParagraph, docxDocument, hwpxFile);
+                        docxParagraph, docxDocument, context);
             } else if (item instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Curve) {
                 processCurve((kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Curve) item, 
-                        docxParagraph, docxDocument, hwpxFile);
+                        docxParagraph, docxDocument, context);
             } else if (item instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Ctrl) {
                 processControlCharacter((kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Ctrl) item, 
-                        docxParagraph, docxDocument, hwpxFile);
+                        docxParagraph, docxDocument, context);
             } else {
                 log.warn("Unsupported RunItem type: {}", item.getClass().getName());
             }
@@ -576,121 +537,64 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
     
     /**
      * Process a text element, including complex text with line breaks and tabs
+     * @param characterStyleId The character style of the enclosing HWPX run, or null
      */
-    private void processTextComplex(T textItem, XWPFParagraph docxParagraph, XWPFRun defaultRun) {
+    private void processTextComplex(T textItem, RunCoalescer coalescer, String characterStyleId) {
         if (textItem.isOnlyText()) {
-            String textContent = textItem.onlyText() != null ? textItem.onlyText() : "";
-            if (!textContent.isEmpty()) {
-                XWPFRun docxRun;
-                if (defaultRun != null) {
-                    // Clone the properties from defaultRun
-                    docxRun = docxParagraph.createRun();
-                    // Copy font properties, but only those explicitly set
-                    if (defaultRun.getFontFamily() != null) {
-                        docxRun.setFontFamily(defaultRun.getFontFamily());
-                    }
-                    if (defaultRun.getFontSizeAsDouble() > 0) {
-                        docxRun.setFontSize(defaultRun.getFontSizeAsDouble());
-                    }
-                    if (defaultRun.getColor() != null) {
-                        docxRun.setColor(defaultRun.getColor());
-                    }
-                    // For boolean properties, only set if true 
-                    // This prevents accidentally setting all text as bold, italic, etc.
-                    if (defaultRun.isBold()) {
-                        docxRun.setBold(true);
-                    }
-                    if (defaultRun.isItalic()) {
-                        docxRun.setItalic(true);
-                    }
-                    // Only apply underline if it's explicitly set and not NONE
-                    if (defaultRun.getUnderline() != UnderlinePatterns.NONE) {
-                        docxRun.setUnderline(defaultRun.getUnderline());
-                    }
-                    // Only apply strikethrough if it's explicitly set
-                    if (defaultRun.isStrikeThrough()) {
-                        docxRun.setStrikeThrough(true);
-                    }
-                } else {
-                    docxRun = docxParagraph.createRun();
-                }
-                docxRun.setText(textContent);
-            }
+            coalescer.appendText(characterStyleId, textItem.onlyText());
         } else {
             // Check if items() is null to avoid NullPointerException
             if (textItem.items() != null) {
                 for (TItem tSubItem : textItem.items()) {
                     if (tSubItem instanceof NormalText) {
-                        String textContent = ((NormalText) tSubItem).text();
-                        if (textContent != null && !textContent.isEmpty()) {
-                            XWPFRun docxRun;
-                            if (defaultRun != null) {
-                                // Clone the properties from defaultRun
-                                docxRun = docxParagraph.createRun();
-                                // Copy font properties, but only those explicitly set
-                                if (defaultRun.getFontFamily() != null) {
-                                    docxRun.setFontFamily(defaultRun.getFontFamily());
-                                }
-                                if (defaultRun.getFontSizeAsDouble() > 0) {
-                                    docxRun.setFontSize(defaultRun.getFontSizeAsDouble());
-                                }
-                                if (defaultRun.getColor() != null) {
-                                    docxRun.setColor(defaultRun.getColor());
-                                }
-                                // For boolean properties, only set if true
-                                if (defaultRun.isBold()) {
-                                    docxRun.setBold(true);
-                                }
-                                if (defaultRun.isItalic()) {
-                                    docxRun.setItalic(true);
-                                }
-                                // Only apply underline if it's explicitly set and not NONE
-                                if (defaultRun.getUnderline() != UnderlinePatterns.NONE) {
-                                    docxRun.setUnderline(defaultRun.getUnderline());
-                                }
-                                // Only apply strikethrough if it's explicitly set
-                                if (defaultRun.isStrikeThrough()) {
-                                    docxRun.setStrikeThrough(true);
-                                }
-                            } else {
-                                docxRun = docxParagraph.createRun();
-                            }
-                            docxRun.setText(textContent);
-                        }
+                        coalescer.appendText(characterStyleId, ((NormalText) tSubItem).text());
                     }
                     else if (tSubItem instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.t.LineBreak) {
-                        XWPFRun docxRun = docxParagraph.createRun();
-                        docxRun.addBreak();
+                        coalescer.createRun(characterStyleId).addBreak();
                     }
                     else if (tSubItem instanceof kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.t.Tab) {
-                        XWPFRun docxRun = docxParagraph.createRun();
-                        docxRun.addTab();
+                        coalescer.createRun(characterStyleId).addTab();
+                    }
+                    else {
+                        // Other inline items end the current run as well
+                        coalescer.flush();
                     }
                 }
             } else {
                 // If items() is null but isOnlyText() is false, create an empty run to maintain structure
                 log.warn("Text item has null items collection but isOnlyText() is false");
-                docxParagraph.createRun();
+                coalescer.createRun(null);
             }
         }
     }
     
     /**
-     * Process a table element
+     * Process a table element. Rows are emitted one at a time; an occupancy array with one entry
+     * per column tracks the vertical merges still open, so every cell, gridSpan and vMerge is
+     * decided in a single pass and the work grows linearly with the number of cells
      */
-    private void processTable(Table tableItem, XWPFDocument docxDocument, XWPFParagraph currentPara, HWPXFile hwpxFile) {
-        log.info("Processing table: {}", tableItem.id());
+    private void processTable(Table tableItem, XWPFDocument docxDocument, XWPFParagraph currentPara, HwpxConversionContext context) {
+        log.debug("Processing table: {}", tableItem.id());
+        TableConversionEvent tableEvent = new TableConversionEvent(tableItem.id());
+        tableEvent.begin();
 
-        // First pass: analyze the table structure to determine true dimensions and merge information
-        TableStructure tableStructure = analyzeTableStructure(tableItem);
+        int numRows = tableItem.countOfTr();
+        int numCols = 0;
+        for (Tr row : tableItem.trs()) {
+            int colCount = 0;
+            for (Tc cell : row.tcs()) {
+                colCount += getColSpan(cell);
+            }
+            numCols = Math.max(numCols, colCount);
+        }
         
-        if (tableStructure.numRows <= 0 || tableStructure.numCols <= 0) {
+        if (numRows <= 0 || numCols <= 0) {
             log.warn("Skipping table with zero rows or columns: {}", tableItem.id());
             return;
         }
 
-        // Create a table with the correct dimensions
-        XWPFTable docxTable = docxDocument.createTable(tableStructure.numRows, tableStructure.numCols);
+        XWPFTable docxTable = docxDocument.createTable();
+        docxTable.removeRow(0);
         
         // Set basic table properties
         if (docxTable.getCTTbl() != null) {
@@ -709,251 +613,117 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
             }
         }
 
-        // Process table content cell by cell using the computed structure
-        for (int rowIdx = 0; rowIdx < tableStructure.numRows; rowIdx++) {
-            Tr hwpxRow = rowIdx < tableItem.countOfTr() ? tableItem.getTr(rowIdx) : null;
-            if (hwpxRow == null) continue;
-            
+        // For each column: the row index up to which a cell from an earlier row covers it, and
+        // at the first column of such a cell, its width
+        int[] coveredUntilRow = new int[numCols];
+        int[] coveringColSpan = new int[numCols];
+
+        int rowIdx = 0;
+        int cellCount = 0;
+        for (Tr hwpxRow : tableItem.trs()) {
+            // Rows are appended with createRow: XWPFTable.insertNewTableRow locates the position by
+            // scanning, which makes large tables quadratic. The new row comes with as many cells
+            // as the first row; they are reused in order and the surplus is removed at the end
+            XWPFTableRow docxRow = docxTable.createRow();
+            Iterator<Tc> hwpxCells = hwpxRow.tcs().iterator();
             int colIdx = 0;
-            for (Tc hwpxCell : hwpxRow.tcs()) {
-                // Skip this position if it's covered by a previously defined vertical or horizontal span
-                while (colIdx < tableStructure.numCols && tableStructure.cellMatrix[rowIdx][colIdx] != null) {
-                    colIdx++;
+            int cellIdx = 0;
+            while (colIdx < numCols) {
+                if (coveredUntilRow[colIdx] > rowIdx) {
+                    // Continuation of a vertical merge from an earlier row
+                    int colSpan = coveringColSpan[colIdx];
+                    CTTcPr tcPr = getOrCreateTcPr(nextTableCell(docxRow, cellIdx++));
+                    tcPr.addNewVMerge().setVal(STMerge.CONTINUE);
+                    if (colSpan > 1) {
+                        tcPr.addNewGridSpan().setVal(BigInteger.valueOf(colSpan));
+                    }
+                    colIdx += colSpan;
+                    continue;
                 }
-                
-                if (colIdx >= tableStructure.numCols) {
-                    break;  // No more cells can be placed in this row
+
+                XWPFTableCell docxCell = nextTableCell(docxRow, cellIdx++);
+                if (!hwpxCells.hasNext()) {
+                    // Short row: pad with empty cells so that the grid stays rectangular
+                    colIdx++;
+                    continue;
                 }
-                
-                // Get span information
-                int colSpan = getColSpan(hwpxCell);
-                int rowSpan = getRowSpan(hwpxCell);
-                
-                // Mark this cell and all spanned cells in our matrix as occupied
-                CellInfo cellInfo = new CellInfo(rowIdx, colIdx, colSpan, rowSpan);
-                for (int r = rowIdx; r < rowIdx + rowSpan && r < tableStructure.numRows; r++) {
-                    for (int c = colIdx; c < colIdx + colSpan && c < tableStructure.numCols; c++) {
-                        tableStructure.cellMatrix[r][c] = cellInfo;
-                    }
+                Tc hwpxCell = hwpxCells.next();
+
+                // Spans are limited to free columns and to the table, so every merge is valid
+                int colSpan = 1;
+                int maxColSpan = getColSpan(hwpxCell);
+                while (colSpan < maxColSpan && colIdx + colSpan < numCols && coveredUntilRow[colIdx + colSpan] <= rowIdx) {
+                    colSpan++;
                 }
-                
-                // Get the actual DOCX cell to modify
-                XWPFTableCell docxCell = docxTable.getRow(rowIdx).getCell(colIdx);
-                
-                // Apply horizontal span (gridSpan)
+                int rowSpan = Math.min(getRowSpan(hwpxCell), numRows - rowIdx);
+
                 if (colSpan > 1) {
-                    CTTcPr tcPr = getOrCreateTcPr(docxCell);
-                    tcPr.addNewGridSpan().setVal(BigInteger.valueOf(colSpan));
-                    
-                    // Remove the spanned cells (they were auto-created by POI)
-                    XWPFTableRow docxRow = docxTable.getRow(rowIdx);
-                    for (int i = 1; i < colSpan && colIdx + i < tableStructure.numCols; i++) {
-                        try {
-                            if (docxRow.getTableCells().size() > colIdx + 1) {
-                                docxRow.removeCell(colIdx + 1);
-                            }
-                        } catch (Exception e) {
-                            log.warn("Error removing spanned cell at position ({},{}): {}", rowIdx, colIdx + i, e.getMessage());
-                        }
-                    }
+                    getOrCreateTcPr(docxCell).addNewGridSpan().setVal(BigInteger.valueOf(colSpan));
                 }
-                
-                // Apply vertical span (vMerge)
                 if (rowSpan > 1) {
-                    // Start of vertical merge
-                    CTTcPr tcPr = getOrCreateTcPr(docxCell);
-                    CTVMerge vmerge = tcPr.addNewVMerge();
-                    vmerge.setVal(STMerge.RESTART);
-                    
-                    // Mark continuation cells for the vertical merge
-                    for (int i = 1; i < rowSpan && rowIdx + i < tableStructure.numRows; i++) {
-                        XWPFTableRow targetRow = docxTable.getRow(rowIdx + i);
-                        if (targetRow == null) continue;
-                        
-                        int targetCellIdx = colIdx;
-                        // Adjust for previous gridSpans in the target row
-                        int adjustedIdx = getAdjustedCellIndex(targetRow, colIdx);
-                        
-                        if (adjustedIdx >= 0 && adjustedIdx < targetRow.getTableCells().size()) {
-                            XWPFTableCell targetCell = targetRow.getCell(adjustedIdx);
-                            CTTcPr targetTcPr = getOrCreateTcPr(targetCell);
-                            
-                            // Mark as continuation
-                            CTVMerge targetVMerge = targetTcPr.addNewVMerge();
-                            targetVMerge.setVal(STMerge.CONTINUE);
-                            
-                            // Apply same colSpan to continued cells if needed
-                            if (colSpan > 1) {
-                                targetTcPr.addNewGridSpan().setVal(BigInteger.valueOf(colSpan));
-                                
-                                // Remove spanned cells in the continuation row
-                                for (int j = 1; j < colSpan && adjustedIdx + j < targetRow.getTableCells().size(); j++) {
-                                    try {
-                                        targetRow.removeCell(adjustedIdx + 1);
-                                    } catch (Exception e) {
-                                        log.warn("Error removing cell in continuation row: {}", e.getMessage());
-                                    }
-                                }
-                            }
-                        }
+                    getOrCreateTcPr(docxCell).addNewVMerge().setVal(STMerge.RESTART);
+                    for (int c = colIdx; c < colIdx + colSpan; c++) {
+                        coveredUntilRow[c] = rowIdx + rowSpan;
                     }
+                    coveringColSpan[colIdx] = colSpan;
                 }
-                
-                // Clear any existing content in the cell
-                for (int p = docxCell.getParagraphs().size() - 1; p >= 0; p--) {
-                    docxCell.removeParagraph(p);
-                }
-                
-                // Process cell content
-                if (hwpxCell.subList() != null) {
-                    for (Para cellPara : hwpxCell.subList().paras()) {
-                        XWPFParagraph cellDocxParagraph = docxCell.addParagraph();
-                        for (Run cellRun : cellPara.runs()) {
-                            processRun(cellRun, cellDocxParagraph, docxDocument, hwpxFile);
-                        }
-                    }
-                    
-                    // Ensure empty cells still have at least one paragraph
-                    if (hwpxCell.subList().countOfPara() == 0) {
-                        if (docxCell.getParagraphs().size() == 0) {
-                            docxCell.addParagraph();
-                        }
-                    }
-                } else {
-                    // Add empty paragraph to preserve structure
-                    if (docxCell.getParagraphs().size() == 0) {
-                        docxCell.addParagraph();
-                    }
-                }
-                
-                // Move to next cell position
+
+                processCellContent(hwpxCell, docxCell, docxDocument, context);
+                cellCount++;
                 colIdx += colSpan;
             }
+            for (int c = docxRow.getTableCells().size() - 1; c >= cellIdx; c--) {
+                docxRow.removeCell(c);
+            }
+            if (hwpxCells.hasNext()) {
+                log.debug("Table {} row {} has more cells than the table has columns", tableItem.id(), rowIdx);
+            }
+            rowIdx++;
         }
         
         // Add a paragraph after the table for better formatting
         docxDocument.createParagraph();
+
+        tableEvent.setRows(numRows);
+        tableEvent.setColumns(numCols);
+        tableEvent.setCells(cellCount);
+        tableEvent.commit();
     }
-    
+
     /**
-     * Helper class to track table structure and cell merging
+     * Converts the paragraphs of a table cell into a new DOCX cell
      */
-    private static class TableStructure {
-        int numRows;
-        int numCols;
-        CellInfo[][] cellMatrix;
-        
-        TableStructure(int rows, int cols) {
-            this.numRows = rows;
-            this.numCols = cols;
-            this.cellMatrix = new CellInfo[rows][cols];
+    private void processCellContent(Tc hwpxCell, XWPFTableCell docxCell, XWPFDocument docxDocument,
+                                    HwpxConversionContext context) {
+        if (hwpxCell.subList() == null || hwpxCell.subList().countOfPara() == 0) {
+            // Keep the empty paragraph of the new cell to preserve structure
+            return;
         }
-    }
-    
-    /**
-     * Helper class to track cell information
-     */
-    private static class CellInfo {
-        int rowStart;
-        int colStart;
-        int rowSpan;
-        int colSpan;
-        
-        CellInfo(int rowStart, int colStart, int colSpan, int rowSpan) {
-            this.rowStart = rowStart;
-            this.colStart = colStart;
-            this.colSpan = colSpan;
-            this.rowSpan = rowSpan;
+
+        // Clear any existing content in the cell
+        for (int p = docxCell.getParagraphs().size() - 1; p >= 0; p--) {
+            docxCell.removeParagraph(p);
         }
-    }
-    
-    /**
-     * Analyze the table structure to determine dimensions and cell merging information
-     */
-    private TableStructure analyzeTableStructure(Table tableItem) {
-        int numRows = tableItem.countOfTr();
-        
-        // First pass: determine maximum number of columns
-        int maxCols = 0;
-        for (int i = 0; i < numRows; i++) {
-            Tr row = tableItem.getTr(i);
-            int colCount = 0;
-            for (Tc cell : row.tcs()) {
-                colCount += getColSpan(cell);
+        for (Para cellPara : hwpxCell.subList().paras()) {
+            XWPFParagraph cellDocxParagraph = docxCell.addParagraph();
+            String cellStyleId = context.getStyleRegistry().paragraphStyleId(cellPara.paraPrIDRef());
+            if (cellStyleId != null) {
+                cellDocxParagraph.setStyle(cellStyleId);
             }
-            maxCols = Math.max(maxCols, colCount);
-        }
-        
-        // Initialize the table structure
-        TableStructure structure = new TableStructure(numRows, maxCols);
-        
-        // Second pass: populate the cell matrix with spanning information
-        for (int rowIdx = 0; rowIdx < numRows; rowIdx++) {
-            Tr row = tableItem.getTr(rowIdx);
-            int colIdx = 0;
-            
-            for (Tc cell : row.tcs()) {
-                // Skip positions that are already covered by spans
-                while (colIdx < maxCols && structure.cellMatrix[rowIdx][colIdx] != null) {
-                    colIdx++;
-                }
-                
-                if (colIdx >= maxCols) break;
-                
-                int colSpan = getColSpan(cell);
-                int rowSpan = getRowSpan(cell);
-                
-                // Create cell info and mark the span in the matrix
-                CellInfo cellInfo = new CellInfo(rowIdx, colIdx, colSpan, rowSpan);
-                for (int r = rowIdx; r < rowIdx + rowSpan && r < numRows; r++) {
-                    for (int c = colIdx; c < colIdx + colSpan && c < maxCols; c++) {
-                        if (r < structure.cellMatrix.length && c < structure.cellMatrix[r].length) {
-                            structure.cellMatrix[r][c] = cellInfo;
-                        }
-                    }
-                }
-                
-                colIdx += colSpan;
+            RunCoalescer cellCoalescer = new RunCoalescer(cellDocxParagraph);
+            for (Run cellRun : cellPara.runs()) {
+                processRun(cellRun, cellDocxParagraph, cellCoalescer, docxDocument, context);
             }
+            cellCoalescer.flush();
         }
-        
-        return structure;
     }
     
     /**
-     * Get the adjusted cell index accounting for gridSpans in previous cells
+     * Returns the cell at the given index of a row, adding a new cell if the row is not that long
      */
-    private int getAdjustedCellIndex(XWPFTableRow row, int desiredIndex) {
-        if (row == null) return -1;
-        
-        int currentIndex = 0;
-        int physicalIndex = 0;
-        
-        for (XWPFTableCell cell : row.getTableCells()) {
-            if (currentIndex == desiredIndex) {
-                return physicalIndex;
-            }
-            
-            int cellGridSpan = 1;
-            if (cell.getCTTc() != null && cell.getCTTc().getTcPr() != null && 
-                cell.getCTTc().getTcPr().getGridSpan() != null) {
-                BigInteger span = cell.getCTTc().getTcPr().getGridSpan().getVal();
-                if (span != null) {
-                    cellGridSpan = span.intValue();
-                }
-            }
-            
-            currentIndex += cellGridSpan;
-            physicalIndex++;
-            
-            if (currentIndex > desiredIndex) {
-                // The desired index is covered by a span, so return the current physical cell
-                return physicalIndex - 1;
-            }
-        }
-        
-        // If we can't find it, the index might be beyond the actual cells due to spans
-        return row.getTableCells().size() - 1;
+    private XWPFTableCell nextTableCell(XWPFTableRow row, int index) {
+        XWPFTableCell cell = row.getCell(index);
+        return cell != null ? cell : row.addNewTableCell();
     }
     
     /**
@@ -972,7 +742,7 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
     private int getColSpan(Tc cell) {
         CellSpan span = cell.cellSpan();
         if (span != null && span.colSpan() != null) {
-            return span.colSpan();
+            return Math.max(1, span.colSpan());
         }
         return 1; // Default ColSpan
     }
@@ -983,7 +753,7 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
     private int getRowSpan(Tc cell) {
         CellSpan span = cell.cellSpan();
         if (span != null && span.rowSpan() != null) {
-            return span.rowSpan();
+            return Math.max(1, span.rowSpan());
         }
         return 1; // Default RowSpan
     }
@@ -991,7 +761,7 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
     /**
      * Process a picture element
      */
-    private void processPicture(Picture pictureItem, XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+    private void processPicture(Picture pictureItem, XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
         String binaryItemIdRef = null;
         if (pictureItem.img() != null) {
             binaryItemIdRef = pictureItem.img().binaryItemIDRef();
@@ -1004,30 +774,18 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
             return;
         }
 
-        String imageHref = null;
-        String imageMimeType = null;
-        // Find the manifest item using the binaryItemIDRef to get the actual image file path (href) and mimetype
-        if (hwpxFile.contentHPFFile() != null && hwpxFile.contentHPFFile().manifest() != null) {
-            for (ManifestItem item : hwpxFile.contentHPFFile().manifest().items()) {
-                if (binaryItemIdRef.equals(item.id())) {
-                    imageHref = item.href();
-                    imageMimeType = item.mediaType();
-                    break;
-                }
-            }
-        }
-
-        if (imageHref == null) {
+        // Resolve the binaryItemIDRef to the image file path (href), mimetype and data
+        BinaryItemIndex.BinaryItem binaryItem = context.getBinaryItemIndex().get(binaryItemIdRef);
+        if (binaryItem == null) {
             log.error("Could not find manifest item href for binaryItemIDRef: {}", binaryItemIdRef);
             XWPFRun errorRun = docxParagraph.createRun();
             errorRun.setText("[Picture Error: Cannot find manifest href for ID " + binaryItemIdRef + "]");
             return;
         }
+        String imageHref = binaryItem.href();
+        String imageMimeType = binaryItem.mediaType();
 
-        // Get the image data from the HWPX package using the href
-        byte[] imageData = findImageDataByHref(imageHref, hwpxFile);
-
-        if (imageData == null) {
+        if (binaryItem.data() == null) {
             log.error("Could not load image data for href: {}", imageHref);
             XWPFRun errorRun = docxParagraph.createRun();
             errorRun.setText("[Picture Error: Cannot load data for " + imageHref + "]");
@@ -1051,16 +809,15 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
             heightHwp = pictureItem.sz().height();
         }
 
-        // Add image to the document
-        try (InputStream imageInputStream = new ByteArrayInputStream(imageData)) {
+        // Add image to the document; repeated images share one package part
+        ImageEmbeddingEvent imageEvent = new ImageEmbeddingEvent(binaryItemIdRef, imageMimeType, binaryItem.data().length);
+        imageEvent.begin();
+        try {
+            String relationId = context.getImageRegistry().relationId(binaryItem, poiPictureType);
             XWPFRun docxRun = docxParagraph.createRun();
-            docxRun.addPicture(
-                new ByteArrayInputStream(imageData), 
-                poiPictureType, 
-                imageHref, 
-                Units.toEMU(widthHwp / 72.0), 
-                Units.toEMU(heightHwp / 72.0)
-            );
+            context.getImageRegistry().addInlinePicture(docxRun, relationId, imageHref,
+                    Units.toEMU(widthHwp / 72.0), Units.toEMU(heightHwp / 72.0));
+            imageEvent.commit();
         } catch (Exception e) {
             log.error("Error embedding image {}: {}", imageHref, e.getMessage());
             XWPFRun errorRun = docxParagraph.createRun();
@@ -1068,35 +825,6 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
         }
     }
     
-    /**
-     * Find image data by href in the HWPX file
-     */
-    private byte[] findImageDataByHref(String imageHref, HWPXFile hwpxFile) {
-        byte[] imageData = null;
-        
-        // Check manifest items first
-        if (hwpxFile.contentHPFFile() != null && hwpxFile.contentHPFFile().manifest() != null) {
-            for (ManifestItem item : hwpxFile.contentHPFFile().manifest().items()) {
-                if (imageHref.equals(item.href()) && item.attachedFile() != null) {
-                   imageData = item.attachedFile().data();
-                   break;
-                }
-            }
-        }
-
-        // Fallback: Check root file entries
-        if (imageData == null && hwpxFile.containerXMLFile() != null && hwpxFile.containerXMLFile().rootFiles() != null) {
-            for (RootFile rootFile : hwpxFile.containerXMLFile().rootFiles().items()) {
-                if (imageHref.equals(rootFile.fullPath()) && rootFile.attachedFile() != null) {
-                    imageData = rootFile.attachedFile().data();
-                    break;
-                }
-            }
-        }
-        
-        return imageData;
-    }
-    
     /**
      * Determine POI picture type from filename or MIME type
      */
@@ -1145,9 +873,9 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
      * Process a line drawing object
      */
     private void processLine(kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Line lineItem, 
-                             XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+                             XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
         // TODO: Implement full line drawing support when needed
-        log.info("Line drawing object {} partially supported", lineItem.id());
+        log.debug("Line drawing object {} partially supported", lineItem.id());
         XWPFRun docxRun = docxParagraph.createRun();
         docxRun.setText("[Line Drawing]");
     }
@@ -1156,9 +884,9 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
      * Process a rectangle drawing object
      */
     private void processRectangle(kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Rectangle rectItem, 
-                             XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+                             XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
         // TODO: Implement full rectangle drawing support when needed
-        log.info("Rectangle drawing object {} partially supported", rectItem.id());
+        log.debug("Rectangle drawing object {} partially supported", rectItem.id());
         XWPFRun docxRun = docxParagraph.createRun();
         docxRun.setText("[Rectangle Drawing]");
     }
@@ -1167,9 +895,9 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
      * Process an ellipse drawing object
      */
     private void processEllipse(kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Ellipse ellipseItem, 
-                           XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+                           XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
         // TODO: Implement full ellipse drawing support when needed
-        log.info("Ellipse drawing object {} partially supported", ellipseItem.id());
+        log.debug("Ellipse drawing object {} partially supported", ellipseItem.id());
         XWPFRun docxRun = docxParagraph.createRun();
         docxRun.setText("[Ellipse Drawing]");
     }
@@ -1178,9 +906,9 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
      * Process an arc drawing object
      */
     private void processArc(kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Arc arcItem, 
-                       XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+                       XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
         // TODO: Implement full arc drawing support when needed
-        log.info("Arc drawing object {} partially supported", arcItem.id());
+        log.debug("Arc drawing object {} partially supported", arcItem.id());
         XWPFRun docxRun = docxParagraph.createRun();
         docxRun.setText("[Arc Drawing]");
     }
@@ -1189,9 +917,9 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
      * Process a polygon drawing object
      */
     private void processPolygon(kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Polygon polygonItem, 
-                           XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+                           XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
         // TODO: Implement full polygon drawing support when needed
-        log.info("Polygon drawing object {} partially supported", polygonItem.id());
+        log.debug("Polygon drawing object {} partially supported", polygonItem.id());
         XWPFRun docxRun = docxParagraph.createRun();
         docxRun.setText("[Polygon Drawing]");
     }
@@ -1200,9 +928,9 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
      * Process a curve drawing object
      */
     private void processCurve(kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Curve curveItem, 
-                         XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
+                         XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
         // TODO: Implement full curve drawing support when needed
-        log.info("Curve drawing object {} partially supported", curveItem.id());
+        log.debug("Curve drawing object {} partially supported", curveItem.id());
         XWPFRun docxRun = docxParagraph.createRun();
         docxRun.setText("[Curve Drawing]");
     }
@@ -1211,9 +939,9 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
      * Process control characters
      */
     private void processControlCharacter(kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Ctrl ctrlItem,
-                                    XWPFParagraph docxParagraph, XWPFDocument docxDocument, HWPXFile hwpxFile) {
-        // Log the control character type for debugging
-        log.info("Control character type: {}", ctrlItem._objectType());
+                                    XWPFParagraph docxParagraph, XWPFDocument docxDocument, HwpxConversionContext context) {
+        // Bookmarks and fields are never emitted, so the output needs no clean-up pass for them
+        log.debug("Control character type: {}", ctrlItem._objectType());
         
         // Don't add visible placeholder text for most control characters
         // Only handle specific ones that need representation
@@ -1236,179 +964,49 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
     }
     
     /**
-     * Validate document structure before saving
+     * Validate document structure before saving. Text, tables and merges are emitted in a valid
+     * form already, so only a completely empty body needs fixing
      */
     private void validateDocument(XWPFDocument document) {
-        // Ensure document has at least one section
         if (document.getDocument() != null && document.getDocument().getBody() != null) {
             if (document.getParagraphs().isEmpty() && document.getTables().isEmpty()) {
                 // Add an empty paragraph if document is completely empty to ensure valid structure
                 document.createParagraph();
                 log.warn("Added empty paragraph to ensure valid document structure");
             }
-            
-            // Validate that all runs have proper content or are valid empty runs
-            for (XWPFParagraph para : document.getParagraphs()) {
-                for (int i = para.getRuns().size() - 1; i >= 0; i--) {
-                    XWPFRun run = para.getRuns().get(i);
-                    // Check for invalid runs that might cause Word to crash
-                    if (run.getCTR() == null) {
-                        log.warn("Removing invalid run with null CTR");
-                        para.removeRun(i);
-                        continue;
-                    }
-                    
-                    // Check for problematic text content that might cause issues in Hangul Word
-                    if (run.getText(0) != null) {
-                        String text = run.getText(0);
-                        // Handle control characters that might cause issues
-                        if (text.contains("\u0000") || text.contains("\uFFFD")) {
-                            log.warn("Fixing text with invalid control characters");
-                            run.setText(text.replace("\u0000", "").replace("\uFFFD", ""), 0);
-                        }
-                    }
-                    
-                    // Check for problematic formatting that might cause Hangul Word to crash
-                    if (run.getCTR().isSetRPr()) {
-                        // Simplified check for run formatting
-                        log.info("Checking run formatting for compatibility");
-                    }
-                }
-                
-                // If paragraph has no runs after cleanup, add an empty run
-                if (para.getRuns().isEmpty()) {
-                    para.createRun();
-                }
-                
-                // Simplify complex paragraph properties that might cause issues
-                if (para.getCTP() != null && para.getCTP().isSetPPr()) {
-                    // Simplify complex formatting if present
-                    log.info("Checking paragraph formatting for compatibility");
-                }
-            }
-            
-            // Ensure tables have valid structure
-            for (XWPFTable table : document.getTables()) {
-                if (table.getRows().isEmpty()) {
-                    // Remove empty tables that might cause issues
-                    log.warn("Removing empty table");
-                    document.removeBodyElement(document.getPosOfTable(table));
-                    continue;
-                }
-                
-                // Validate table structure
-                for (XWPFTableRow row : table.getRows()) {
-                    if (row.getTableCells().isEmpty()) {
-                        log.warn("Row with no cells found - adding an empty cell");
-                        row.addNewTableCell();
-                    }
-                    
-                    for (XWPFTableCell cell : row.getTableCells()) {
-                        // Ensure all cells have at least one paragraph
-                        if (cell.getParagraphs().isEmpty()) {
-                            cell.addParagraph();
-                        }
-                        
-                        // Check and fix cell properties that might cause issues
-                        if (cell.getCTTc() != null && cell.getCTTc().isSetTcPr()) {
-                            CTTcPr tcPr = cell.getCTTc().getTcPr();
-                            
-                            // For Hangul Word compatibility, simplify vMerge and hMerge attributes
-                            if (tcPr.isSetVMerge()) {
-                                CTVMerge vmerge = tcPr.getVMerge();
-                                // Ensure valid vMerge values
-                                if (vmerge.getVal() == null || 
-                                    (!vmerge.getVal().equals(STMerge.RESTART) && 
-                                     !vmerge.getVal().equals(STMerge.CONTINUE))) {
-                                    // Reset to a valid value
-                                    vmerge.setVal(STMerge.RESTART);
-                                }
-                            }
-                            
-                            // Ensure grid span is valid
-                            if (tcPr.isSetGridSpan() && tcPr.getGridSpan().getVal().intValue() <= 0) {
-                                tcPr.getGridSpan().setVal(BigInteger.ONE);
-                            }
-                        }
-                    }
-                }
-                
-                // Simplified table properties check
-                if (table.getCTTbl() != null) {
-                    log.info("Checking table properties for compatibility");
-                }
-            }
-            
-            // Remove any bookmarks or complex fields that might cause issues
-            removeComplexFields(document);
         }
     }
     
     /**
-     * Remove complex fields and bookmarks that might cause compatibility issues
+     * Verify the generated DOCX file is valid and compatible with various office suites.
+     * The package structure is always checked by streaming over it; a sample of the outputs
+     * is additionally re-opened with POI
      */
-    private void removeComplexFields(XWPFDocument document) {
-        try {
-            // Remove complex fields like TOC, indexes, etc.
-            if (document.getDocument() != null && document.getDocument().getBody() != null) {
-                org.w3c.dom.Node bodyNode = document.getDocument().getBody().getDomNode();
-                removeComplexNodes(bodyNode);
-            }
-        } catch (Exception e) {
-            log.warn("Could not remove complex fields: {}", e.getMessage());
+    private boolean verifyDocxFile(File docxFile) {
+        if (!docxFile.exists() || docxFile.length() == 0) {
+            log.error("Generated DOCX file is empty or doesn't exist");
+            return false;
         }
-    }
-    
-    /**
-     * Recursively remove problematic nodes from a DOM tree
-     */
-    private void removeComplexNodes(org.w3c.dom.Node node) {
-        if (node == null) return;
-        
-        // Create a list of nodes to remove (can't remove while iterating)
-        java.util.List<org.w3c.dom.Node> nodesToRemove = new java.util.ArrayList<>();
-        
-        // Check all child nodes
-        org.w3c.dom.NodeList children = node.getChildNodes();
-        for (int i = 0; i < children.getLength(); i++) {
-            org.w3c.dom.Node child = children.item(i);
-            
-            // Check node name for problematic elements
-            String nodeName = child.getNodeName();
-            if (nodeName.contains("bookmarkStart") || 
-                nodeName.contains("bookmarkEnd") ||
-                nodeName.contains("fldSimple") ||
-                nodeName.contains("fldChar") ||
-                nodeName.contains("instrText")) {
-                nodesToRemove.add(child);
-                continue;
-            }
-            
-            // Recursively process child nodes
-            removeComplexNodes(child);
+
+        try {
+            DocxPackageValidator.validate(docxFile.toPath());
+        } catch (IOException e) {
+            log.error("DOCX file has invalid structure: {}", e.getMessage());
+            return false;
         }
-        
-        // Remove the identified problematic nodes
-        for (org.w3c.dom.Node nodeToRemove : nodesToRemove) {
-            try {
-                node.removeChild(nodeToRemove);
-            } catch (Exception e) {
-                // Some nodes might be already removed or can't be removed
-            }
+
+        if (fullParseRate > 0 && ThreadLocalRandom.current().nextDouble() < fullParseRate) {
+            return verifyByFullParse(docxFile);
         }
+        return true;
     }
-    
+
     /**
-     * Verify the generated DOCX file is valid and compatible with various office suites
+     * Opens the generated file with POI to verify it's valid
      */
-    private boolean verifyDocxFile(File docxFile) {
-        if (!docxFile.exists() || docxFile.length() == 0) {
-            log.error("Generated DOCX file is empty or doesn't exist");
-            return false;
-        }
-        
-        // Try to open the generated file to verify it's valid
-        try (XWPFDocument verification = new XWPFDocument(new FileInputStream(docxFile))) {
+    private boolean verifyByFullParse(File docxFile) {
+        try (InputStream in = new FileInputStream(docxFile);
+             XWPFDocument verification = new XWPFDocument(in)) {
             // If we can open it, check basic structure
             boolean hasValidStructure = verification.getDocument() != null && 
                                        verification.getDocument().getBody() != null;
@@ -1418,15 +1016,8 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
                 return false;
             }
             
-            // Additional checks for Hangul Word compatibility
-            boolean hasValidContent = false;
-            
             // Check for at least one valid paragraph or table
-            if (!verification.getParagraphs().isEmpty() || !verification.getTables().isEmpty()) {
-                hasValidContent = true;
-            }
-            
-            if (!hasValidContent) {
+            if (verification.getParagraphs().isEmpty() && verification.getTables().isEmpty()) {
                 log.error("DOCX file has no valid content");
                 return false;
             }
@@ -1447,7 +1038,7 @@ public class HwpxToDocxStrategy implements ConversionStrategy {
     private void checkKoreanCompatibility(XWPFDocument doc) {
         try {
             // For Hancom Office compatibility, ensure there's proper language settings
-            log.info("Checking document for Korean language compatibility");
+            log.debug("Checking document for Korean language compatibility");
             
             // Basic compatibility checks sufficient for this pass
         } catch (Exception e) {
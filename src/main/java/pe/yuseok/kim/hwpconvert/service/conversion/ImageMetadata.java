@@ -0,0 +1,115 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Removes metadata from PNG and JPEG images by dropping chunks and segments; the compressed
+ * pixel data is copied as it is, so nothing is decoded or re-encoded.
+ */
+final class ImageMetadata {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    /**
+     * Ancillary PNG chunks that affect how the image is rendered. Critical chunks are always kept;
+     * other ancillary chunks (tEXt, zTXt, iTXt, eXIf, iCCP, tIME, ...) are dropped
+     */
+    private static final Set<String> PNG_RENDERING_CHUNKS = Set.of("tRNS", "gAMA", "cHRM", "sRGB", "sBIT", "bKGD", "pHYs");
+
+    private static final int JPEG_SOI = 0xd8;
+    private static final int JPEG_SOS = 0xda;
+    private static final int JPEG_APP0 = 0xe0;
+    private static final int JPEG_APP14 = 0xee;
+    private static final int JPEG_APP15 = 0xef;
+    private static final int JPEG_COM = 0xfe;
+
+    private ImageMetadata() {
+    }
+
+    /**
+     * @return The PNG without metadata chunks, or null if the data is not a well-formed PNG
+     */
+    static byte[] stripPng(byte[] data) {
+        if (data.length < PNG_SIGNATURE.length) {
+            return null;
+        }
+        for (int i = 0; i < PNG_SIGNATURE.length; i++) {
+            if (data[i] != PNG_SIGNATURE[i]) {
+                return null;
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, PNG_SIGNATURE.length);
+        int offset = PNG_SIGNATURE.length;
+        while (offset < data.length) {
+            if (offset + 12 > data.length) {
+                return null;
+            }
+            long length = readInt(data, offset) & 0xffffffffL;
+            // Length, type, data and CRC
+            long chunkSize = 12 + length;
+            if (offset + chunkSize > data.length) {
+                return null;
+            }
+            String type = new String(data, offset + 4, 4, StandardCharsets.US_ASCII);
+            boolean critical = Character.isUpperCase(type.charAt(0));
+            if (critical || PNG_RENDERING_CHUNKS.contains(type)) {
+                out.write(data, offset, (int) chunkSize);
+            }
+            offset += (int) chunkSize;
+            if ("IEND".equals(type)) {
+                break;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Drops the APPn segments other than JFIF (APP0) and Adobe (APP14, which tells how the colors
+     * are encoded), and comments
+     * @return The JPEG without metadata segments, or null if the data is not a well-formed JPEG
+     */
+    static byte[] stripJpeg(byte[] data) {
+        if (data.length < 4 || (data[0] & 0xff) != 0xff || (data[1] & 0xff) != JPEG_SOI) {
+            return null;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        out.write(data, 0, 2);
+        int offset = 2;
+        while (offset + 4 <= data.length) {
+            if ((data[offset] & 0xff) != 0xff) {
+                return null;
+            }
+            int marker = data[offset + 1] & 0xff;
+            if (marker == 0xff) {
+                // Fill byte before a marker
+                offset++;
+                continue;
+            }
+            if (marker == JPEG_SOS) {
+                // Entropy-coded data follows; everything from here on is copied
+                out.write(data, offset, data.length - offset);
+                return out.toByteArray();
+            }
+            int segmentSize = 2 + (((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff));
+            if (segmentSize < 4 || offset + segmentSize > data.length) {
+                return null;
+            }
+            boolean metadata = (marker > JPEG_APP0 && marker <= JPEG_APP15 && marker != JPEG_APP14) || marker == JPEG_COM;
+            if (!metadata) {
+                out.write(data, offset, segmentSize);
+            }
+            offset += segmentSize;
+        }
+        return null;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xff) << 24) | ((data[offset + 1] & 0xff) << 16)
+                | ((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff);
+    }
+}
@@ -0,0 +1,304 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.BinaryItemIndex;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.BinaryItemIndex.BinaryItem;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.PictureDisplaySizes.DisplaySize;
+
+/**
+ * Optional stage that shrinks the images of a document before they are embedded.
+ * BMP and TIFF images are re-encoded as PNG (or JPEG when that is smaller and there is no
+ * transparency), and images with more pixels than max-dpi at their displayed size are
+ * downsampled. Re-encoded images carry no metadata; PNG and JPEG images that are kept have their
+ * metadata (EXIF, XMP, ICC profiles, text chunks, comments) removed without re-encoding the pixels.
+ * Images are processed in parallel and the results are cached by content hash, so an image
+ * shared by many documents is optimized once.
+ */
+@Slf4j
+@Component
+public class ImageOptimizer {
+
+    private static final double HWP_UNITS_PER_INCH = 7200.0;
+
+    @Value("${conversion.image.enabled:false}")
+    private boolean enabled;
+
+    @Value("${conversion.image.max-dpi:220}")
+    private int maxDpi;
+
+    @Value("${conversion.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${conversion.image.parallelism:4}")
+    private int parallelism;
+
+    @Value("${conversion.image.cache-size:64MB}")
+    private DataSize cacheSize;
+
+    private ExecutorService executor;
+
+    private final Map<String, OptimizedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            executor = Executors.newFixedThreadPool(parallelism);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The settings that change the optimized images, for the version of the converted output
+     */
+    public String getOutputSettings() {
+        return "img" + maxDpi + "dpi.q" + jpegQuality;
+    }
+
+    /**
+     * Replaces the images of a document with optimized versions, where that makes them smaller
+     * @param binaryItems The binary items of the document
+     * @param displaySizes The largest displayed size of each binary item
+     */
+    public void optimize(BinaryItemIndex binaryItems, Map<String, DisplaySize> displaySizes) {
+        List<BinaryItem> images = binaryItems.items().stream()
+                .filter(item -> item.data() != null && sourceFormat(item) != null)
+                .toList();
+        if (images.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<BinaryItem>> results = images.stream()
+                .map(item -> CompletableFuture.supplyAsync(() -> optimize(item, displaySizes.get(item.id())), executor))
+                .toList();
+
+        long before = 0;
+        long after = 0;
+        for (int i = 0; i < images.size(); i++) {
+            BinaryItem optimized = results.get(i).join();
+            before += images.get(i).data().length;
+            if (optimized != null) {
+                binaryItems.replace(optimized);
+                after += optimized.data().length;
+            } else {
+                after += images.get(i).data().length;
+            }
+        }
+        log.debug("Optimized {} images: {} -> {} bytes", images.size(), before, after);
+    }
+
+    /**
+     * @return The optimized item, or null if the image is best left as it is
+     */
+    private BinaryItem optimize(BinaryItem item, DisplaySize displaySize) {
+        long[] maxPixels = maxPixels(displaySize);
+        String key = sha256(item.data()) + ":" + maxPixels[0] + "x" + maxPixels[1];
+
+        OptimizedImage result = getCached(key);
+        if (result == null) {
+            try {
+                result = encode(item, maxPixels);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not optimize image {}: {}", item.href(), e.getMessage());
+                result = OptimizedImage.UNCHANGED;
+            }
+            putCached(key, result);
+        }
+
+        if (result == OptimizedImage.UNCHANGED) {
+            return null;
+        }
+        String href = item.href();
+        int dot = href.lastIndexOf('.');
+        String baseName = dot > href.lastIndexOf('/') ? href.substring(0, dot) : href;
+        return new BinaryItem(item.id(), baseName + "." + result.extension(), result.mediaType(), result.data());
+    }
+
+    private OptimizedImage encode(BinaryItem item, long[] maxPixels) throws IOException {
+        String format = sourceFormat(item);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(item.data()));
+        if (image == null) {
+            return OptimizedImage.UNCHANGED;
+        }
+
+        double scale = Math.min(1.0, Math.min((double) maxPixels[0] / image.getWidth(),
+                (double) maxPixels[1] / image.getHeight()));
+        boolean resize = scale < 1.0;
+        if (!resize && "png".equals(format)) {
+            // Already compressed and not oversized: re-encoding would not pay off, dropping metadata does
+            return stripped(item, ImageMetadata.stripPng(item.data()), "png", "image/png");
+        }
+        if (!resize && "jpeg".equals(format)) {
+            return stripped(item, ImageMetadata.stripJpeg(item.data()), "jpg", "image/jpeg");
+        }
+        if (resize) {
+            image = resize(image, Math.max(1, (int) Math.round(image.getWidth() * scale)),
+                    Math.max(1, (int) Math.round(image.getHeight() * scale)));
+        }
+
+        boolean alpha = image.getColorModel().hasAlpha();
+        OptimizedImage best = null;
+        if (!"jpeg".equals(format) || alpha) {
+            best = new OptimizedImage(writePng(image), "png", "image/png");
+        }
+        if (!alpha && (best == null || !"png".equals(format))) {
+            // Scans and photos compress far better as JPEG; drawings usually stay PNG
+            OptimizedImage jpeg = new OptimizedImage(writeJpeg(image), "jpg", "image/jpeg");
+            if (best == null || jpeg.data().length < best.data().length) {
+                best = jpeg;
+            }
+        }
+
+        if (best == null || best.data().length >= item.data().length) {
+            return OptimizedImage.UNCHANGED;
+        }
+        return best;
+    }
+
+    private static OptimizedImage stripped(BinaryItem item, byte[] data, String extension, String mediaType) {
+        if (data == null || data.length >= item.data().length) {
+            return OptimizedImage.UNCHANGED;
+        }
+        return new OptimizedImage(data, extension, mediaType);
+    }
+
+    private BufferedImage resize(BufferedImage image, int width, int height) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] writePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private byte[] writeJpeg(BufferedImage image) throws IOException {
+        if (image.getType() != BufferedImage.TYPE_INT_RGB && image.getType() != BufferedImage.TYPE_3BYTE_BGR
+                && image.getType() != BufferedImage.TYPE_BYTE_GRAY) {
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            try {
+                graphics.drawImage(image, 0, 0, null);
+            } finally {
+                graphics.dispose();
+            }
+            image = rgb;
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The pixel box an image needs at max-dpi for its displayed size, unbounded if the size is unknown
+     */
+    private long[] maxPixels(DisplaySize displaySize) {
+        if (displaySize == null || displaySize.width() <= 0 || displaySize.height() <= 0) {
+            return new long[] {Long.MAX_VALUE, Long.MAX_VALUE};
+        }
+        return new long[] {
+                (long) Math.ceil(displaySize.width() / HWP_UNITS_PER_INCH * maxDpi),
+                (long) Math.ceil(displaySize.height() / HWP_UNITS_PER_INCH * maxDpi)};
+    }
+
+    /**
+     * @return "bmp", "tiff", "png" or "jpeg", or null for formats that are left alone (GIF, vector images)
+     */
+    private static String sourceFormat(BinaryItem item) {
+        String name = (item.mediaType() != null ? item.mediaType() : item.href()).toLowerCase();
+        if (name.contains("bmp")) return "bmp";
+        if (name.contains("tif")) return "tiff";
+        if (name.contains("png")) return "png";
+        if (name.contains("jpeg") || name.contains("jpg")) return "jpeg";
+        return null;
+    }
+
+    private synchronized OptimizedImage getCached(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void putCached(String key, OptimizedImage image) {
+        OptimizedImage previous = cache.put(key, image);
+        if (previous != null) {
+            cachedBytes -= previous.data().length;
+        }
+        cachedBytes += image.data().length;
+
+        Iterator<Map.Entry<String, OptimizedImage>> entries = cache.entrySet().iterator();
+        while (cachedBytes > cacheSize.toBytes() && entries.hasNext()) {
+            cachedBytes -= entries.next().getValue().data().length;
+            entries.remove();
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record OptimizedImage(byte[] data, String extension, String mediaType) {
+        static final OptimizedImage UNCHANGED = new OptimizedImage(new byte[0], null, null);
+    }
+}
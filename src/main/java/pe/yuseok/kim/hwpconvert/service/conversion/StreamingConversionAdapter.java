@@ -0,0 +1,75 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import lombok.extern.slf4j.Slf4j;
+import pe.yuseok.kim.hwpconvert.model.ConversionResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Runs a file based {@link ConversionStrategy} behind the streaming interface.
+ * The input is spooled to a private temp directory, converted there and the output copied
+ * to the sink; the directory is removed afterwards.
+ */
+@Slf4j
+public class StreamingConversionAdapter implements StreamingConversionStrategy {
+
+    private final ConversionStrategy strategy;
+
+    public StreamingConversionAdapter(ConversionStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public ConversionResult convert(InputStream input, String sourceFileName, OutputStream output, String targetFormat) {
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory("conversion-");
+            Path sourcePath = workDir.resolve(Paths.get(sourceFileName).getFileName());
+            Files.copy(input, sourcePath);
+
+            ConversionResult result = strategy.convert(sourcePath.toFile(), workDir.toFile(), targetFormat);
+            if (result.isSuccess() && result.getConvertedFileName() != null) {
+                Files.copy(workDir.resolve(result.getConvertedFileName()), output);
+            }
+            return result;
+        } catch (IOException e) {
+            log.error("Error converting {} through a temp directory", sourceFileName, e);
+            ConversionResult result = new ConversionResult();
+            result.setSourceFileName(sourceFileName);
+            result.setTargetFormat(targetFormat);
+            result.setSuccess(false);
+            result.setErrorMessage("Error converting document: " + e.getMessage());
+            return result;
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    @Override
+    public boolean supportsSourceFormat(String sourceFormat) {
+        return strategy.supportsSourceFormat(sourceFormat);
+    }
+
+    @Override
+    public boolean supportsTargetFormat(String targetFormat) {
+        return strategy.supportsTargetFormat(targetFormat);
+    }
+
+    private void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Failed to delete temp directory: {}", dir, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import pe.yuseok.kim.hwpconvert.model.ConversionResult;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Conversion strategy that reads its input from a stream and writes its output to a sink,
+ * so conversions can run without naming files on disk (synchronous conversions straight
+ * into a response, in-memory conversion of small files, chaining converters).
+ * Strategies that only implement {@link ConversionStrategy} are wrapped by
+ * {@link StreamingConversionAdapter}.
+ */
+public interface StreamingConversionStrategy {
+
+    /**
+     * Converts a document from one format to another
+     *
+     * @param input The source document. Not closed by the strategy; wrap channels with Channels.newInputStream
+     * @param sourceFileName Name of the source document, used for logging and the result
+     * @param output Where the converted document is written. Not closed by the strategy
+     * @param targetFormat The format to convert to
+     * @return A ConversionResult object containing the result of the conversion
+     */
+    ConversionResult convert(InputStream input, String sourceFileName, OutputStream output, String targetFormat);
+
+    /**
+     * Returns true if this strategy can handle the given source format
+     */
+    boolean supportsSourceFormat(String sourceFormat);
+
+    /**
+     * Returns true if this strategy can convert to the given target format
+     */
+    boolean supportsTargetFormat(String targetFormat);
+}
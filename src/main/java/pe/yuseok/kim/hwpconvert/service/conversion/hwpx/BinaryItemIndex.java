@@ -0,0 +1,125 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.context_hpf.ManifestItem;
+import kr.dogfoot.hwpxlib.object.metainf.RootFile;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The binary items (images and other attachments) of an HWPX package by manifest id.
+ * Built once per document, so pictures resolve their binaryItemIDRef without scanning
+ * the manifest and root file lists for every occurrence.
+ */
+public class BinaryItemIndex {
+
+    /**
+     * A binary item of the package
+     * @param href Path of the item in the package
+     * @param mediaType MIME type from the manifest, may be null
+     * @param data The content, or null if the package does not contain it
+     */
+    public record BinaryItem(String id, String href, String mediaType, byte[] data) {
+    }
+
+    private final Map<String, BinaryItem> items = new HashMap<>();
+    private final Function<String, byte[]> loader;
+
+    private BinaryItemIndex(Function<String, byte[]> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Indexes the manifest of an HWPX document
+     * @param hwpxFile The document
+     * @return The index; empty if the document has no manifest
+     */
+    public static BinaryItemIndex build(HWPXFile hwpxFile) {
+        BinaryItemIndex index = new BinaryItemIndex(null);
+        if (hwpxFile.contentHPFFile() == null || hwpxFile.contentHPFFile().manifest() == null) {
+            return index;
+        }
+
+        // Data missing from a manifest item may still be attached to a root file entry
+        Map<String, byte[]> rootFileData = new HashMap<>();
+        if (hwpxFile.containerXMLFile() != null && hwpxFile.containerXMLFile().rootFiles() != null) {
+            for (RootFile rootFile : hwpxFile.containerXMLFile().rootFiles().items()) {
+                if (rootFile.fullPath() != null && rootFile.attachedFile() != null) {
+                    rootFileData.putIfAbsent(rootFile.fullPath(), rootFile.attachedFile().data());
+                }
+            }
+        }
+
+        Map<String, byte[]> hrefData = new HashMap<>();
+        for (ManifestItem item : hwpxFile.contentHPFFile().manifest().items()) {
+            if (item.href() != null && item.attachedFile() != null && item.attachedFile().data() != null) {
+                hrefData.putIfAbsent(item.href(), item.attachedFile().data());
+            }
+        }
+
+        for (ManifestItem item : hwpxFile.contentHPFFile().manifest().items()) {
+            if (item.id() == null || item.href() == null || index.items.containsKey(item.id())) {
+                continue;
+            }
+            byte[] data = hrefData.get(item.href());
+            if (data == null) {
+                data = rootFileData.get(item.href());
+            }
+            index.items.put(item.id(), new BinaryItem(item.id(), item.href(), item.mediaType(), data));
+        }
+        return index;
+    }
+
+    /**
+     * Indexes the manifest of an HWPX document whose binary items are read on first use
+     * @param hwpxFile The document; the content attached to its manifest items is ignored
+     * @param loader Reads the content of an item by href, returning null if it is missing
+     * @return The index; empty if the document has no manifest
+     */
+    public static BinaryItemIndex build(HWPXFile hwpxFile, Function<String, byte[]> loader) {
+        BinaryItemIndex index = new BinaryItemIndex(loader);
+        if (hwpxFile.contentHPFFile() == null || hwpxFile.contentHPFFile().manifest() == null) {
+            return index;
+        }
+        for (ManifestItem item : hwpxFile.contentHPFFile().manifest().items()) {
+            if (item.id() != null && item.href() != null && !index.items.containsKey(item.id())) {
+                index.items.put(item.id(), new BinaryItem(item.id(), item.href(), item.mediaType(), null));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param binaryItemIdRef The binaryItemIDRef of a picture
+     * @return The item, or null if the manifest has no such id
+     */
+    public synchronized BinaryItem get(String binaryItemIdRef) {
+        if (binaryItemIdRef == null) {
+            return null;
+        }
+        BinaryItem item = items.get(binaryItemIdRef);
+        if (item != null && item.data() == null && loader != null) {
+            item = new BinaryItem(item.id(), item.href(), item.mediaType(), loader.apply(item.href()));
+            items.put(item.id(), item);
+        }
+        return item;
+    }
+
+    public Collection<BinaryItem> items() {
+        return items.values();
+    }
+
+    /**
+     * Replaces the content of an item, e.g. with an optimized version of an image
+     * @param item The new item; its id must exist in the index
+     */
+    public void replace(BinaryItem item) {
+        if (!items.containsKey(item.id())) {
+            throw new IllegalArgumentException("Unknown binary item: " + item.id());
+        }
+        items.put(item.id(), item);
+    }
+}
@@ -0,0 +1,106 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.CTInline;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeds the images of a document into the DOCX package. Every distinct image is stored once:
+ * repeated pictures of the same binary item, and different items with identical content
+ * (a logo saved twice), all refer to a single package part. Thread-safe, so sections can be
+ * converted in parallel.
+ */
+@Slf4j
+public class DocxImageRegistry {
+
+    private static final String INLINE_PICTURE_XML =
+            "<wp:inline distT=\"0\" distB=\"0\" distL=\"0\" distR=\"0\""
+            + " xmlns:wp=\"http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing\""
+            + " xmlns:a=\"http://schemas.openxmlformats.org/drawingml/2006/main\""
+            + " xmlns:pic=\"http://schemas.openxmlformats.org/drawingml/2006/picture\""
+            + " xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">"
+            + "<wp:extent cx=\"%1$d\" cy=\"%2$d\"/>"
+            + "<wp:docPr id=\"%3$d\" name=\"Picture %3$d\" descr=\"%4$s\"/>"
+            + "<wp:cNvGraphicFramePr><a:graphicFrameLocks noChangeAspect=\"1\"/></wp:cNvGraphicFramePr>"
+            + "<a:graphic><a:graphicData uri=\"http://schemas.openxmlformats.org/drawingml/2006/picture\">"
+            + "<pic:pic><pic:nvPicPr><pic:cNvPr id=\"0\" name=\"Picture %3$d\" descr=\"%4$s\"/>"
+            + "<pic:cNvPicPr><a:picLocks noChangeAspect=\"1\"/></pic:cNvPicPr></pic:nvPicPr>"
+            + "<pic:blipFill><a:blip r:embed=\"%5$s\"/><a:stretch><a:fillRect/></a:stretch></pic:blipFill>"
+            + "<pic:spPr><a:xfrm><a:off x=\"0\" y=\"0\"/><a:ext cx=\"%1$d\" cy=\"%2$d\"/></a:xfrm>"
+            + "<a:prstGeom prst=\"rect\"><a:avLst/></a:prstGeom></pic:spPr>"
+            + "</pic:pic></a:graphicData></a:graphic></wp:inline>";
+
+    private final XWPFDocument document;
+    private final Map<String, String> relationIdsByItem = new HashMap<>();
+    private final Map<String, String> relationIdsByContent = new HashMap<>();
+    private final AtomicLong nextDrawingId = new AtomicLong(1);
+
+    public DocxImageRegistry(XWPFDocument document) {
+        this.document = document;
+    }
+
+    /**
+     * Returns the relationship id of the package part holding an image, adding the part
+     * only if no image with the same content was added before
+     * @param item The binary item of the image
+     * @param pictureType The POI picture type (XWPFDocument.PICTURE_TYPE_*)
+     * @return The relationship id to use in r:embed
+     */
+    public synchronized String relationId(BinaryItemIndex.BinaryItem item, int pictureType) throws InvalidFormatException {
+        String relationId = relationIdsByItem.get(item.id());
+        if (relationId != null) {
+            return relationId;
+        }
+
+        String contentKey = pictureType + ":" + sha256(item.data());
+        relationId = relationIdsByContent.get(contentKey);
+        if (relationId == null) {
+            relationId = document.addPictureData(item.data(), pictureType);
+            relationIdsByContent.put(contentKey, relationId);
+        } else {
+            log.debug("Binary item {} has the same content as an embedded image", item.id());
+        }
+        relationIdsByItem.put(item.id(), relationId);
+        return relationId;
+    }
+
+    /**
+     * Adds an inline picture that refers to an already embedded image
+     * @param run The run to add the picture to
+     * @param relationId The relationship id from {@link #relationId}
+     * @param description Alternative text, usually the file name
+     * @param width Width in EMU
+     * @param height Height in EMU
+     */
+    public void addInlinePicture(XWPFRun run, String relationId, String description, long width, long height)
+            throws XmlException {
+        String xml = String.format(INLINE_PICTURE_XML, width, height, nextDrawingId.getAndIncrement(),
+                escapeAttribute(description), relationId);
+        run.getCTR().addNewDrawing().addNewInline().set(CTInline.Factory.parse(xml));
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String escapeAttribute(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
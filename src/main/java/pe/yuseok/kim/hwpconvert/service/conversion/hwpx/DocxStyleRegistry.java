@@ -0,0 +1,305 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.CharPr;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.ParaPr;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.openxmlformats.schemas.officeDocument.x2006.sharedTypes.STVerticalAlignRun;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTFonts;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTInd;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrGeneral;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSpacing;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTUnderline;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STJc;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STLineSpacingRule;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STUnderline;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the HWPX paraPr/charPr entries to named DOCX styles in styles.xml.
+ * Each entry becomes one style the first time it is used, and paragraphs and runs only
+ * refer to it by id, instead of every run carrying its own copy of the formatting.
+ * Thread-safe, so sections can be converted in parallel.
+ */
+@Slf4j
+public class DocxStyleRegistry {
+
+    /** HWP units (1/7200 inch) to OOXML twips (1/1440 inch), as used for indentation and spacing */
+    private static final double HWP_TO_DXA = 1440.0 / 7200.0;
+
+    private static final String PARAGRAPH_STYLE_PREFIX = "HwpxPara";
+    private static final String CHARACTER_STYLE_PREFIX = "HwpxChar";
+
+    private final XWPFStyles styles;
+    private final HeaderIndex headerIndex;
+    private final Map<String, String> paragraphStyleIds = new HashMap<>();
+    private final Map<String, String> characterStyleIds = new HashMap<>();
+
+    public DocxStyleRegistry(XWPFStyles styles, HeaderIndex headerIndex) {
+        this.styles = styles;
+        this.headerIndex = headerIndex;
+    }
+
+    /**
+     * Returns the paragraph style of a paraPr, creating it on first use
+     * @param paraPrIDRef The paraPrIDRef of an HWPX paragraph
+     * @return The style id, or null if the paraPr does not exist
+     */
+    public synchronized String paragraphStyleId(String paraPrIDRef) {
+        if (paraPrIDRef == null) {
+            return null;
+        }
+        String styleId = paragraphStyleIds.get(paraPrIDRef);
+        if (styleId == null && !paragraphStyleIds.containsKey(paraPrIDRef)) {
+            ParaPr paraPr = headerIndex.paraPr(paraPrIDRef);
+            styleId = paraPr != null ? addParagraphStyle(paraPrIDRef, paraPr) : null;
+            paragraphStyleIds.put(paraPrIDRef, styleId);
+        }
+        return styleId;
+    }
+
+    /**
+     * Returns the character style of a charPr, creating it on first use
+     * @param charPrIDRef The charPrIDRef of an HWPX run
+     * @return The style id, or null if the charPr does not exist
+     */
+    public synchronized String characterStyleId(String charPrIDRef) {
+        if (charPrIDRef == null) {
+            return null;
+        }
+        String styleId = characterStyleIds.get(charPrIDRef);
+        if (styleId == null && !characterStyleIds.containsKey(charPrIDRef)) {
+            CharPr charPr = headerIndex.charPr(charPrIDRef);
+            styleId = charPr != null ? addCharacterStyle(charPrIDRef, charPr) : null;
+            characterStyleIds.put(charPrIDRef, styleId);
+        }
+        return styleId;
+    }
+
+    private String addParagraphStyle(String id, ParaPr paraPr) {
+        CTStyle style = newStyle(PARAGRAPH_STYLE_PREFIX + id, "HWPX Paragraph " + id, STStyleType.PARAGRAPH);
+        CTPPrGeneral pPr = style.addNewPPr();
+
+        // Alignment
+        if (paraPr.align() != null && paraPr.align().horizontal() != null) {
+            switch (paraPr.align().horizontal()) {
+                case CENTER:
+                    pPr.addNewJc().setVal(STJc.CENTER);
+                    break;
+                case RIGHT:
+                    pPr.addNewJc().setVal(STJc.RIGHT);
+                    break;
+                case JUSTIFY:
+                    pPr.addNewJc().setVal(STJc.BOTH);
+                    break;
+                case DISTRIBUTE:
+                    pPr.addNewJc().setVal(STJc.DISTRIBUTE);
+                    break;
+                default:
+                    pPr.addNewJc().setVal(STJc.LEFT);
+                    break;
+            }
+        }
+
+        if (paraPr.margin() != null) {
+            // Indentation: intent is the first line relative to the left margin, negative for a hanging indent
+            Integer left = paraPr.margin().left() != null ? paraPr.margin().left().value() : null;
+            Integer right = paraPr.margin().right() != null ? paraPr.margin().right().value() : null;
+            Integer intent = paraPr.margin().intent() != null ? paraPr.margin().intent().value() : null;
+            if (left != null || right != null || (intent != null && intent != 0)) {
+                CTInd ind = pPr.addNewInd();
+                if (left != null) {
+                    ind.setLeft(toTwips(left));
+                }
+                if (right != null) {
+                    ind.setRight(toTwips(right));
+                }
+                if (intent != null && intent > 0) {
+                    ind.setFirstLine(toTwips(intent));
+                } else if (intent != null && intent < 0) {
+                    ind.setHanging(toTwips(-intent));
+                }
+            }
+
+            // Spacing before and after the paragraph
+            Integer before = paraPr.margin().prev() != null ? paraPr.margin().prev().value() : null;
+            Integer after = paraPr.margin().next() != null ? paraPr.margin().next().value() : null;
+            if (before != null) {
+                spacing(pPr).setBefore(toTwips(before));
+            }
+            if (after != null) {
+                spacing(pPr).setAfter(toTwips(after));
+            }
+        }
+
+        // Line spacing: percentages are 240ths of a line, the other types are points (1/100 pt in HWP)
+        if (paraPr.lineSpacing() != null && paraPr.lineSpacing().type() != null
+                && paraPr.lineSpacing().value() != null) {
+            double value = paraPr.lineSpacing().value() / 100.0;
+            CTSpacing spacing = spacing(pPr);
+            switch (paraPr.lineSpacing().type()) {
+                case FIXED:
+                    spacing.setLineRule(STLineSpacingRule.EXACT);
+                    spacing.setLine(BigInteger.valueOf(Math.round(value * 20.0)));
+                    break;
+                case AT_LEAST:
+                    spacing.setLineRule(STLineSpacingRule.AT_LEAST);
+                    spacing.setLine(BigInteger.valueOf(Math.round(value * 20.0)));
+                    break;
+                default:
+                    spacing.setLineRule(STLineSpacingRule.AUTO);
+                    spacing.setLine(BigInteger.valueOf(Math.round(value * 240.0)));
+                    break;
+            }
+        }
+
+        return add(style);
+    }
+
+    private String addCharacterStyle(String id, CharPr charPr) {
+        CTStyle style = newStyle(CHARACTER_STYLE_PREFIX + id, "HWPX Character " + id, STStyleType.CHARACTER);
+        CTRPr rPr = style.addNewRPr();
+
+        // Font family; fontRef holds font ids per script. For Korean text, prioritize the Hangul font
+        if (charPr.fontRef() != null) {
+            String fontName = headerIndex.fontName(HeaderIndex.FontScript.HANGUL, charPr.fontRef().hangul());
+            if (fontName == null) {
+                fontName = headerIndex.fontName(HeaderIndex.FontScript.LATIN, charPr.fontRef().latin());
+            }
+            if (fontName == null) {
+                fontName = headerIndex.fontName(HeaderIndex.FontScript.HANJA, charPr.fontRef().hanja());
+            }
+            if (fontName == null) {
+                fontName = headerIndex.fontName(HeaderIndex.FontScript.JAPANESE, charPr.fontRef().japanese());
+            }
+            if (fontName == null) {
+                fontName = headerIndex.fontName(HeaderIndex.FontScript.OTHER, charPr.fontRef().other());
+            }
+            if (fontName != null) {
+                CTFonts fonts = rPr.addNewRFonts();
+                fonts.setAscii(fontName);
+                fonts.setHAnsi(fontName);
+                fonts.setCs(fontName);
+                // Set the East Asian font name explicitly to ensure proper Korean rendering
+                fonts.setEastAsia(fontName);
+            }
+        }
+
+        // Font size: HWP heights are 1/100 pt (1000 = 10pt), DOCX sizes are half points
+        if (charPr.height() != null) {
+            float fontSizePoints = charPr.height() / 100.0f;
+            if (fontSizePoints < 6) fontSizePoints = 10; // Default to 10pt if too small
+            if (fontSizePoints > 72) fontSizePoints = 72; // Cap at 72pt
+            BigInteger halfPoints = BigInteger.valueOf(Math.round(fontSizePoints * 2));
+            rPr.addNewSz().setVal(halfPoints);
+            rPr.addNewSzCs().setVal(halfPoints);
+        }
+
+        // Text color, #RRGGBB in HWP
+        String color = hexColor(charPr.textColor());
+        if (color != null) {
+            rPr.addNewColor().setVal(color);
+        }
+
+        if (isOn(charPr.bold())) {
+            rPr.addNewB();
+        }
+        if (isOn(charPr.italic())) {
+            rPr.addNewI();
+        }
+        if (isOn(charPr.strikeout())) {
+            rPr.addNewStrike();
+        }
+
+        // Underline, only if explicitly enabled
+        if (charPr.underline() != null && charPr.underline().type() != null) {
+            STUnderline.Enum pattern = underlinePattern(charPr.underline().type().toString());
+            if (pattern != null && pattern != STUnderline.NONE) {
+                CTUnderline underline = rPr.addNewU();
+                underline.setVal(pattern);
+                String underlineColor = hexColor(charPr.underline().color());
+                if (underlineColor != null) {
+                    underline.setColor(underlineColor);
+                }
+            }
+        }
+
+        if (isOn(charPr.supscript())) {
+            rPr.addNewVertAlign().setVal(STVerticalAlignRun.SUPERSCRIPT);
+        } else if (isOn(charPr.subscript())) {
+            rPr.addNewVertAlign().setVal(STVerticalAlignRun.SUBSCRIPT);
+        }
+
+        return add(style);
+    }
+
+    private CTStyle newStyle(String styleId, String name, STStyleType.Enum type) {
+        CTStyle style = CTStyle.Factory.newInstance();
+        style.setStyleId(styleId);
+        style.setType(type);
+        style.addNewName().setVal(name);
+        return style;
+    }
+
+    private String add(CTStyle style) {
+        styles.addStyle(new XWPFStyle(style, styles));
+        log.debug("Added DOCX style {}", style.getStyleId());
+        return style.getStyleId();
+    }
+
+    private static CTSpacing spacing(CTPPrGeneral pPr) {
+        return pPr.isSetSpacing() ? pPr.getSpacing() : pPr.addNewSpacing();
+    }
+
+    private static BigInteger toTwips(int hwpValue) {
+        return BigInteger.valueOf(Math.round(hwpValue * HWP_TO_DXA));
+    }
+
+    private static String hexColor(String hwpColor) {
+        if (hwpColor != null && hwpColor.startsWith("#") && hwpColor.length() == 7) {
+            return hwpColor.substring(1);
+        }
+        return null;
+    }
+
+    /**
+     * HWP on/off properties might be a boolean value or an object
+     */
+    private static boolean isOn(Object value) {
+        return value != null && ("true".equalsIgnoreCase(value.toString()) || "yes".equalsIgnoreCase(value.toString()));
+    }
+
+    private static STUnderline.Enum underlinePattern(String type) {
+        switch (type.toLowerCase()) {
+            case "solid":
+            case "single":
+                return STUnderline.SINGLE;
+            case "double":
+            case "db":
+                return STUnderline.DOUBLE;
+            case "dotted":
+                return STUnderline.DOTTED;
+            case "dashed":
+                return STUnderline.DASH;
+            case "dash-dot":
+                return STUnderline.DOT_DASH;
+            case "dash-dot-dot":
+                return STUnderline.DOT_DOT_DASH;
+            case "wave":
+                return STUnderline.WAVE;
+            case "thick":
+                return STUnderline.THICK;
+            case "none":
+                return STUnderline.NONE;
+            default:
+                return null;
+        }
+    }
+}
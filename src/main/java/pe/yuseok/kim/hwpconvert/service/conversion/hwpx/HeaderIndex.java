@@ -0,0 +1,118 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.header_xml.RefList;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.BorderFill;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.CharPr;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.Fontface;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.ParaPr;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.Style;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.fontface.Font;
+import kr.dogfoot.hwpxlib.object.common.ObjectList;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * ID-indexed view of the reference lists in header.xml (paraPr, charPr, fonts, borderFills, styles).
+ * Built once per document, so every xxxIDRef in the sections resolves with a hash lookup instead of
+ * a scan of the whole list for each paragraph and run.
+ */
+public class HeaderIndex {
+
+    /**
+     * The font lists of header.xml; a charPr fontRef holds one font id per script
+     */
+    public enum FontScript {
+        HANGUL, LATIN, HANJA, JAPANESE, OTHER
+    }
+
+    private final Map<String, ParaPr> paraProperties = new HashMap<>();
+    private final Map<String, CharPr> charProperties = new HashMap<>();
+    private final Map<String, BorderFill> borderFills = new HashMap<>();
+    private final Map<String, Style> styles = new HashMap<>();
+    private final Map<FontScript, Map<String, String>> fontNames = new EnumMap<>(FontScript.class);
+
+    private HeaderIndex() {
+        for (FontScript script : FontScript.values()) {
+            fontNames.put(script, new HashMap<>());
+        }
+    }
+
+    /**
+     * Indexes the header of an HWPX document
+     * @param hwpxFile The document
+     * @return The index; empty if the document has no header
+     */
+    public static HeaderIndex build(HWPXFile hwpxFile) {
+        HeaderIndex index = new HeaderIndex();
+        if (hwpxFile.headerXMLFile() == null || hwpxFile.headerXMLFile().refList() == null) {
+            return index;
+        }
+
+        RefList refList = hwpxFile.headerXMLFile().refList();
+        putAll(index.paraProperties, refList.paraProperties(), ParaPr::id);
+        putAll(index.charProperties, refList.charProperties(), CharPr::id);
+        putAll(index.borderFills, refList.borderFills(), BorderFill::id);
+        putAll(index.styles, refList.styles(), Style::id);
+
+        if (refList.fontfaces() != null) {
+            index.putFonts(FontScript.HANGUL, refList.fontfaces().hangulFontface());
+            index.putFonts(FontScript.LATIN, refList.fontfaces().latinFontface());
+            index.putFonts(FontScript.HANJA, refList.fontfaces().hanjaFontface());
+            index.putFonts(FontScript.JAPANESE, refList.fontfaces().japaneseFontface());
+            index.putFonts(FontScript.OTHER, refList.fontfaces().otherFontface());
+        }
+        return index;
+    }
+
+    private static <T> void putAll(Map<String, T> map, ObjectList<T> list, Function<T, String> id) {
+        if (list == null) {
+            return;
+        }
+        for (T item : list.items()) {
+            if (id.apply(item) != null) {
+                map.put(id.apply(item), item);
+            }
+        }
+    }
+
+    private void putFonts(FontScript script, Fontface fontface) {
+        if (fontface == null) {
+            return;
+        }
+        for (Font font : fontface.fonts()) {
+            if (font.id() != null && font.face() != null) {
+                fontNames.get(script).put(font.id(), font.face());
+            }
+        }
+    }
+
+    public ParaPr paraPr(String id) {
+        return id != null ? paraProperties.get(id) : null;
+    }
+
+    public CharPr charPr(String id) {
+        return id != null ? charProperties.get(id) : null;
+    }
+
+    public BorderFill borderFill(String id) {
+        return id != null ? borderFills.get(id) : null;
+    }
+
+    public Style style(String id) {
+        return id != null ? styles.get(id) : null;
+    }
+
+    /**
+     * Resolves a font id of a charPr fontRef to the font face name
+     * @param script The script the font id belongs to
+     * @param fontId The font id
+     * @return The face name, or null if the id is unknown
+     */
+    public String fontName(FontScript script, String fontId) {
+        return fontId != null ? fontNames.get(script).get(fontId) : null;
+    }
+}
@@ -0,0 +1,52 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+/**
+ * Per-document state of an HWPX conversion: the source document and the lookup
+ * structures built for it once up front
+ */
+public class HwpxConversionContext {
+
+    private final HWPXFile hwpxFile;
+    private final HeaderIndex headerIndex;
+    private final DocxStyleRegistry styleRegistry;
+    private final BinaryItemIndex binaryItemIndex;
+    private final DocxImageRegistry imageRegistry;
+
+    public HwpxConversionContext(HWPXFile hwpxFile, XWPFDocument docxDocument) {
+        this(hwpxFile, docxDocument, BinaryItemIndex.build(hwpxFile));
+    }
+
+    /**
+     * @param binaryItemIndex The binary items of the document, e.g. read lazily from the package
+     */
+    public HwpxConversionContext(HWPXFile hwpxFile, XWPFDocument docxDocument, BinaryItemIndex binaryItemIndex) {
+        this.hwpxFile = hwpxFile;
+        this.headerIndex = HeaderIndex.build(hwpxFile);
+        this.styleRegistry = new DocxStyleRegistry(docxDocument.createStyles(), headerIndex);
+        this.binaryItemIndex = binaryItemIndex;
+        this.imageRegistry = new DocxImageRegistry(docxDocument);
+    }
+
+    public HWPXFile getHwpxFile() {
+        return hwpxFile;
+    }
+
+    public HeaderIndex getHeaderIndex() {
+        return headerIndex;
+    }
+
+    public DocxStyleRegistry getStyleRegistry() {
+        return styleRegistry;
+    }
+
+    public BinaryItemIndex getBinaryItemIndex() {
+        return binaryItemIndex;
+    }
+
+    public DocxImageRegistry getImageRegistry() {
+        return imageRegistry;
+    }
+}
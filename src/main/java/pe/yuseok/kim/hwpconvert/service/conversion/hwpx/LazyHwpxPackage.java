@@ -0,0 +1,346 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.section_xml.SectionXMLFile;
+import kr.dogfoot.hwpxlib.reader.HWPXReader;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Reads an HWPX package piece by piece instead of all at once. The container and content.hpf
+ * are scanned with StAX first, and hwpxlib then reads a skeleton of the package in which every
+ * section is empty and every binary item has no content: this gives the header and the manifest
+ * for the cost of the header alone. Sections are read one at a time when they are iterated, and
+ * binary items are read from the ZIP when a picture refers to them.
+ * <p>
+ * hwpxlib has no API for reading single paragraphs, so a section is the unit that is held in
+ * memory; documents split into several sections gain the most. A section is read from a second
+ * skeleton whose header is empty as well, so header.xml is parsed once per package, not once per
+ * section. Use {@link #countSections} to read single-section documents eagerly instead.
+ */
+@Slf4j
+public class LazyHwpxPackage implements Closeable {
+
+    private static final String CONTAINER = "META-INF/container.xml";
+    private static final String DEFAULT_CONTENT_HPF = "Contents/content.hpf";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+    private static final XMLEventFactory XML_EVENT_FACTORY = XMLEventFactory.newFactory();
+
+    private final ZipFile zip;
+    private final List<String> sectionEntries = new ArrayList<>();
+    private final Set<String> binaryEntries = new HashSet<>();
+    private String headerEntry;
+    private Path skeleton;
+    private Path sectionSkeleton;
+    private HWPXFile hwpxFile;
+    private BinaryItemIndex binaryItemIndex;
+
+    private LazyHwpxPackage(ZipFile zip) {
+        this.zip = zip;
+    }
+
+    /**
+     * Opens an HWPX file and reads everything but its sections and binary items
+     * @param file The HWPX file
+     */
+    public static LazyHwpxPackage open(Path file) throws IOException {
+        LazyHwpxPackage hwpxPackage = new LazyHwpxPackage(new ZipFile(file.toFile()));
+        try {
+            hwpxPackage.readManifest();
+            hwpxPackage.skeleton = Files.createTempFile("hwpx-skeleton-", ".hwpx");
+            hwpxPackage.writeSkeleton(hwpxPackage.skeleton, false);
+            hwpxPackage.sectionSkeleton = Files.createTempFile("hwpx-skeleton-", ".hwpx");
+            hwpxPackage.writeSkeleton(hwpxPackage.sectionSkeleton, true);
+            hwpxPackage.hwpxFile = read(hwpxPackage.skeleton);
+            hwpxPackage.binaryItemIndex = BinaryItemIndex.build(hwpxPackage.hwpxFile, hwpxPackage::readBinaryItem);
+        } catch (IOException | RuntimeException e) {
+            hwpxPackage.close();
+            throw e;
+        }
+        log.debug("Opened HWPX package lazily: {} sections, {} binary items",
+                hwpxPackage.sectionEntries.size(), hwpxPackage.binaryEntries.size());
+        return hwpxPackage;
+    }
+
+    /**
+     * Counts the sections of an HWPX file by scanning its manifest only
+     * @param file The HWPX file
+     */
+    public static int countSections(Path file) throws IOException {
+        try (LazyHwpxPackage hwpxPackage = new LazyHwpxPackage(new ZipFile(file.toFile()))) {
+            hwpxPackage.readManifest();
+            return hwpxPackage.sectionEntries.size();
+        }
+    }
+
+    /**
+     * @return The document with header and manifest; its sections are empty
+     */
+    public HWPXFile getHwpxFile() {
+        return hwpxFile;
+    }
+
+    /**
+     * @return Binary items whose content is read when they are first looked up
+     */
+    public BinaryItemIndex getBinaryItemIndex() {
+        return binaryItemIndex;
+    }
+
+    public int getSectionCount() {
+        return sectionEntries.size();
+    }
+
+    /**
+     * Reads one section. Nothing is cached, so the section can be dropped once it is converted
+     * @param index The index of the section in document order
+     */
+    public SectionXMLFile readSection(int index) throws IOException {
+        String sectionEntry = sectionEntries.get(index);
+        Path sectionPackage = Files.createTempFile("hwpx-section-", ".hwpx");
+        try {
+            try (ZipFile skeletonZip = new ZipFile(sectionSkeleton.toFile());
+                 ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(sectionPackage))) {
+                Enumeration<? extends ZipEntry> entries = skeletonZip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    ZipFile source = sectionEntry.equals(entry.getName()) ? zip : skeletonZip;
+                    out.putNextEntry(new ZipEntry(entry.getName()));
+                    try (InputStream in = source.getInputStream(source.getEntry(entry.getName()))) {
+                        in.transferTo(out);
+                    }
+                    out.closeEntry();
+                }
+            }
+            return read(sectionPackage).sectionXMLFileList().get(index);
+        } finally {
+            Files.deleteIfExists(sectionPackage);
+        }
+    }
+
+    /**
+     * @return The sections in document order, each read when the iterator reaches it
+     */
+    public Iterable<SectionXMLFile> sections() {
+        return () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < sectionEntries.size();
+            }
+
+            @Override
+            public SectionXMLFile next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return readSection(next++);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            zip.close();
+        } finally {
+            if (skeleton != null) {
+                Files.deleteIfExists(skeleton);
+            }
+            if (sectionSkeleton != null) {
+                Files.deleteIfExists(sectionSkeleton);
+            }
+        }
+    }
+
+    private byte[] readBinaryItem(String href) {
+        ZipEntry entry = zip.getEntry(href);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream in = zip.getInputStream(entry)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds the section parts in spine order and the binary item parts of the manifest
+     */
+    private void readManifest() throws IOException {
+        String contentHpf = DEFAULT_CONTENT_HPF;
+        if (zip.getEntry(CONTAINER) != null) {
+            String rootFile = firstAttribute(CONTAINER, "rootfile", "full-path");
+            if (rootFile != null) {
+                contentHpf = rootFile;
+            }
+        }
+        if (zip.getEntry(contentHpf) == null) {
+            throw new IOException("Missing part " + contentHpf);
+        }
+
+        Map<String, String> hrefs = new HashMap<>();
+        List<String> spine = new ArrayList<>();
+        try (InputStream in = zip.getInputStream(zip.getEntry(contentHpf))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if ("item".equals(reader.getLocalName())) {
+                        String id = reader.getAttributeValue(null, "id");
+                        String href = reader.getAttributeValue(null, "href");
+                        if (id != null && href != null) {
+                            hrefs.put(id, href);
+                        }
+                    } else if ("itemref".equals(reader.getLocalName())) {
+                        spine.add(reader.getAttributeValue(null, "idref"));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed " + contentHpf + ": " + e.getMessage(), e);
+        }
+
+        for (String idref : spine) {
+            String href = hrefs.get(idref);
+            if (href != null && href.substring(href.lastIndexOf('/') + 1).startsWith("section")) {
+                sectionEntries.add(href);
+            }
+        }
+        for (String href : hrefs.values()) {
+            if ("header.xml".equals(href.substring(href.lastIndexOf('/') + 1))) {
+                headerEntry = href;
+            } else if (!href.endsWith(".xml") && zip.getEntry(href) != null) {
+                binaryEntries.add(href);
+            }
+        }
+    }
+
+    /**
+     * Copies the package with empty sections (root element only) and empty binary items
+     * @param emptyHeader Whether the header is emptied too, for the skeleton the sections are read with
+     */
+    private void writeSkeleton(Path target, boolean emptyHeader) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(target))) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                if (sectionEntries.contains(entry.getName())
+                        || emptyHeader && entry.getName().equals(headerEntry)) {
+                    writeRootElement(entry, out);
+                } else if (!binaryEntries.contains(entry.getName())) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        in.transferTo(out);
+                    }
+                }
+                out.closeEntry();
+            }
+        }
+    }
+
+    private void writeRootElement(ZipEntry entry, OutputStream out) throws IOException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLEventReader reader = XML_INPUT_FACTORY.createXMLEventReader(in);
+            XMLEventWriter writer = XML_OUTPUT_FACTORY.createXMLEventWriter(out, "UTF-8");
+            try {
+                writer.add(XML_EVENT_FACTORY.createStartDocument("UTF-8", "1.0"));
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    if (event.isStartElement()) {
+                        StartElement root = event.asStartElement();
+                        writer.add(root);
+                        writer.add(XML_EVENT_FACTORY.createEndElement(root.getName(), root.getNamespaces()));
+                        break;
+                    }
+                }
+                writer.add(XML_EVENT_FACTORY.createEndDocument());
+                writer.flush();
+            } finally {
+                reader.close();
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed " + entry.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String firstAttribute(String part, String element, String attribute) throws IOException {
+        try (InputStream in = zip.getInputStream(zip.getEntry(part))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && element.equals(reader.getLocalName())) {
+                        return reader.getAttributeValue(null, attribute);
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed " + part + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static HWPXFile read(Path file) throws IOException {
+        try {
+            return HWPXReader.fromFile(file.toFile());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not read HWPX package: " + e.getMessage(), e);
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
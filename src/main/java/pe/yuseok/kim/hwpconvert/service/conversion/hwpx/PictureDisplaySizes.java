@@ -0,0 +1,72 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.section_xml.SectionXMLFile;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Para;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Run;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.RunItem;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Picture;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Table;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tc;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tr;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds the largest size each binary item is displayed at in a document, including pictures
+ * inside table cells. Used to decide how many pixels an image needs.
+ */
+public final class PictureDisplaySizes {
+
+    /**
+     * Displayed size in HWP units (1/7200 inch)
+     */
+    public record DisplaySize(long width, long height) {
+    }
+
+    private PictureDisplaySizes() {
+    }
+
+    /**
+     * @param hwpxFile The document
+     * @return The largest displayed size by binaryItemIDRef
+     */
+    public static Map<String, DisplaySize> collect(HWPXFile hwpxFile) {
+        Map<String, DisplaySize> sizes = new HashMap<>();
+        for (SectionXMLFile section : hwpxFile.sectionXMLFileList().items()) {
+            collect(section.paras(), sizes);
+        }
+        return sizes;
+    }
+
+    private static void collect(Iterable<Para> paras, Map<String, DisplaySize> sizes) {
+        for (Para para : paras) {
+            for (Run run : para.runs()) {
+                for (RunItem item : run.runItems()) {
+                    if (item instanceof Picture picture) {
+                        add(picture, sizes);
+                    } else if (item instanceof Table table) {
+                        for (Tr row : table.trs()) {
+                            for (Tc cell : row.tcs()) {
+                                if (cell.subList() != null) {
+                                    collect(cell.subList().paras(), sizes);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void add(Picture picture, Map<String, DisplaySize> sizes) {
+        if (picture.img() == null || picture.img().binaryItemIDRef() == null || picture.sz() == null
+                || picture.sz().width() == null || picture.sz().height() == null) {
+            return;
+        }
+        DisplaySize size = new DisplaySize(picture.sz().width(), picture.sz().height());
+        sizes.merge(picture.img().binaryItemIDRef(), size, (a, b) ->
+                new DisplaySize(Math.max(a.width(), b.width()), Math.max(a.height(), b.height())));
+    }
+}
@@ -0,0 +1,91 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import java.util.Objects;
+
+/**
+ * Buffers consecutive text of one DOCX paragraph that has the same character style and
+ * writes it as a single run. HWPX splits text into many small fragments, and each DOCX run
+ * costs POI objects and output size. Breaks, tabs and any other content end the current run.
+ * Characters that are not allowed in XML, and replacement characters left by broken source
+ * text, are dropped here, so the finished document needs no clean-up pass.
+ */
+public class RunCoalescer {
+
+    private final XWPFParagraph paragraph;
+    private final StringBuilder text = new StringBuilder();
+    private String styleId;
+
+    public RunCoalescer(XWPFParagraph paragraph) {
+        this.paragraph = paragraph;
+    }
+
+    /**
+     * Adds text to the pending run, starting a new run if the style changes
+     * @param characterStyleId The character style of the text, or null for none
+     * @param content The text
+     */
+    public void appendText(String characterStyleId, String content) {
+        if (content == null || content.isEmpty()) {
+            return;
+        }
+        if (!text.isEmpty() && !Objects.equals(styleId, characterStyleId)) {
+            flush();
+        }
+        styleId = characterStyleId;
+        appendValidCharacters(content);
+    }
+
+    /**
+     * Writes the pending text and returns a new, empty run for content that must not be merged
+     * (line breaks, tabs)
+     * @param characterStyleId The character style of the run, or null for none
+     */
+    public XWPFRun createRun(String characterStyleId) {
+        flush();
+        XWPFRun run = paragraph.createRun();
+        if (characterStyleId != null) {
+            run.setStyle(characterStyleId);
+        }
+        return run;
+    }
+
+    /**
+     * Writes the pending text as one run. Call before adding any other content to the paragraph
+     */
+    public void flush() {
+        if (text.isEmpty()) {
+            return;
+        }
+        XWPFRun run = paragraph.createRun();
+        if (styleId != null) {
+            run.setStyle(styleId);
+        }
+        run.setText(text.toString());
+        text.setLength(0);
+    }
+
+    private void appendValidCharacters(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (isValidCharacter(c)) {
+                text.append(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < content.length()
+                    && Character.isLowSurrogate(content.charAt(i + 1))) {
+                text.append(c).append(content.charAt(++i));
+            }
+        }
+    }
+
+    /**
+     * XML 1.0 characters of the basic multilingual plane, without U+FFFD
+     */
+    private static boolean isValidCharacter(char c) {
+        if (c < 0x20) {
+            return c == '\t' || c == '\n' || c == '\r';
+        }
+        return c < 0xD800 || (c >= 0xE000 && c < 0xFFFD);
+    }
+}
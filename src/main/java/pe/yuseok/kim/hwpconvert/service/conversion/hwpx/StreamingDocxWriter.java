@@ -0,0 +1,247 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes a DOCX package with word/document.xml streamed out as the body is produced.
+ * Paragraphs and tables are built with POI in a scratch document as usual, copied to the
+ * output with StAX by {@link #writeBody} and then removed from the scratch document, so the
+ * scratch document never holds more than the last few blocks. Styles, numbering, settings,
+ * media and relationships are registered in the same scratch document and written by POI
+ * in {@link #finish}; relationship ids therefore match the ones used in the body.
+ */
+public class StreamingDocxWriter {
+
+    private static final String DOCUMENT = "word/document.xml";
+    private static final String WORDPROCESSING_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    /**
+     * Namespaces declared on the root element, so copied elements do not repeat them
+     */
+    private static final Map<String, String> PREFIXES = new LinkedHashMap<>();
+    static {
+        PREFIXES.put(WORDPROCESSING_NS, "w");
+        PREFIXES.put("http://schemas.openxmlformats.org/officeDocument/2006/relationships", "r");
+        PREFIXES.put("http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing", "wp");
+        PREFIXES.put("http://schemas.openxmlformats.org/drawingml/2006/main", "a");
+        PREFIXES.put("http://schemas.openxmlformats.org/drawingml/2006/picture", "pic");
+        PREFIXES.put("http://schemas.openxmlformats.org/markup-compatibility/2006", "mc");
+        PREFIXES.put("urn:schemas-microsoft-com:vml", "v");
+        PREFIXES.put("urn:schemas-microsoft-com:office:office", "o");
+    }
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private final ZipOutputStream zip;
+    private final XMLStreamWriter writer;
+    private final Map<String, String> otherPrefixes = new HashMap<>();
+    private final Set<String> declaredOnElement = new HashSet<>();
+    private int blockCount;
+
+    /**
+     * Starts the package and the body of document.xml
+     * @param out The stream to write the DOCX package to; it is not closed
+     */
+    public StreamingDocxWriter(OutputStream out) throws IOException {
+        this.zip = new ZipOutputStream(out);
+        zip.putNextEntry(new ZipEntry(DOCUMENT));
+        try {
+            writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(zip, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("w", "document", WORDPROCESSING_NS);
+            for (Map.Entry<String, String> namespace : PREFIXES.entrySet()) {
+                writer.writeNamespace(namespace.getValue(), namespace.getKey());
+            }
+            writer.writeStartElement("w", "body", WORDPROCESSING_NS);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not start document.xml", e);
+        }
+    }
+
+    /**
+     * Writes the paragraphs and tables of the document body, then removes them from the document
+     * @param document The scratch document holding the blocks produced since the last call
+     */
+    public void writeBody(XWPFDocument document) throws IOException {
+        try {
+            for (IBodyElement element : document.getBodyElements()) {
+                if (element instanceof XWPFParagraph paragraph) {
+                    copyElement(paragraph.getCTP());
+                    blockCount++;
+                } else if (element instanceof XWPFTable table) {
+                    copyElement(table.getCTTbl());
+                    blockCount++;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write document body", e);
+        }
+        for (int i = document.getBodyElements().size() - 1; i >= 0; i--) {
+            document.removeBodyElement(i);
+        }
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Ends document.xml and writes the remaining parts of the package from the scratch document
+     * @param document The scratch document; its body must already have been written
+     */
+    public void finish(XWPFDocument document) throws IOException {
+        writeBody(document);
+        try {
+            if (blockCount == 0) {
+                // A body without any block is not valid
+                writer.writeEmptyElement("w", "p", WORDPROCESSING_NS);
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not finish document.xml", e);
+        }
+        zip.closeEntry();
+
+        // The scratch document now has an empty body, so writing it costs little; its parts are
+        // spooled to a temporary file rather than memory because it also holds the images
+        Path parts = Files.createTempFile("docx-parts-", ".docx");
+        try {
+            try (OutputStream out = Files.newOutputStream(parts)) {
+                document.write(out);
+            }
+            try (ZipFile partsZip = new ZipFile(parts.toFile())) {
+                Enumeration<? extends ZipEntry> entries = partsZip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (DOCUMENT.equals(entry.getName())) {
+                        continue;
+                    }
+                    zip.putNextEntry(new ZipEntry(entry.getName()));
+                    try (InputStream in = partsZip.getInputStream(entry)) {
+                        in.transferTo(zip);
+                    }
+                    zip.closeEntry();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(parts);
+        }
+        zip.finish();
+    }
+
+    /**
+     * Copies an XMLBeans element, including the element itself, to the output
+     */
+    private void copyElement(XmlObject element) throws XMLStreamException {
+        // The reader starts at the element and would go on into its following siblings
+        XMLStreamReader reader = element.newXMLStreamReader(new XmlOptions().setSaveOuter());
+        try {
+            int depth = 0;
+            int event = reader.getEventType();
+            while (true) {
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    writeStartElement(reader.getName());
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        writeAttribute(reader.getAttributeName(i), reader.getAttributeValue(i));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    writer.writeEndElement();
+                    if (--depth == 0) {
+                        break;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE) {
+                    writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+                if (!reader.hasNext()) {
+                    break;
+                }
+                event = reader.next();
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void writeStartElement(QName name) throws XMLStreamException {
+        declaredOnElement.clear();
+        String namespace = name.getNamespaceURI();
+        if (namespace == null || namespace.isEmpty()) {
+            writer.writeStartElement(name.getLocalPart());
+            return;
+        }
+        String prefix = prefixFor(namespace);
+        writer.writeStartElement(prefix, name.getLocalPart(), namespace);
+        declareIfNeeded(prefix, namespace);
+    }
+
+    private void writeAttribute(QName name, String value) throws XMLStreamException {
+        String namespace = name.getNamespaceURI();
+        if (namespace == null || namespace.isEmpty()) {
+            writer.writeAttribute(name.getLocalPart(), value);
+            return;
+        }
+        String prefix = prefixFor(namespace);
+        declareIfNeeded(prefix, namespace);
+        writer.writeAttribute(prefix, namespace, name.getLocalPart(), value);
+    }
+
+    /**
+     * The prefix of a namespace: the root element's, the predeclared xml prefix (POI puts
+     * xml:space on w:t when text has leading or trailing spaces), or a generated one
+     */
+    private String prefixFor(String namespace) {
+        if (XMLConstants.XML_NS_URI.equals(namespace)) {
+            return XMLConstants.XML_NS_PREFIX;
+        }
+        String prefix = PREFIXES.get(namespace);
+        if (prefix != null) {
+            return prefix;
+        }
+        return otherPrefixes.computeIfAbsent(namespace, ns -> "ns" + otherPrefixes.size());
+    }
+
+    /**
+     * Namespaces the converter does not normally produce are declared on the element that uses
+     * them, once even if the element and several of its attributes share one
+     */
+    private void declareIfNeeded(String prefix, String namespace) throws XMLStreamException {
+        if (XMLConstants.XML_NS_URI.equals(namespace) || PREFIXES.containsKey(namespace)) {
+            return;
+        }
+        if (declaredOnElement.add(namespace)) {
+            writer.writeNamespace(prefix, namespace);
+        }
+    }
+}
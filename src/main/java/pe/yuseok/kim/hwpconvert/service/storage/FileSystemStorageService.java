@@ -0,0 +1,139 @@
+package pe.yuseok.kim.hwpconvert.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps files on the local file system under conversion.temp-dir and conversion.output-dir,
+ * sharded into two levels of hex prefix directories ("output/ab/cd/name.docx").
+ * Files written before sharding was introduced are still found at the top of their area.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "conversion.storage.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemStorageService implements StorageService {
+
+    private static final String WORK_DIR = "work";
+
+    @Value("${conversion.temp-dir:./temp}")
+    private String tempDir;
+
+    @Value("${conversion.output-dir:./output}")
+    private String outputDir;
+
+    @Override
+    public Path getWorkDir() throws IOException {
+        return Files.createDirectories(Paths.get(tempDir, WORK_DIR));
+    }
+
+    @Override
+    public void put(Area area, String key, Path source) throws IOException {
+        Path target = shardedPath(area, key);
+        Files.createDirectories(target.getParent());
+        // A rename when the work directory is on the same file system, a copy otherwise
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public Path getLocalPath(Area area, String key) {
+        Path sharded = shardedPath(area, key);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path legacy = root(area).resolve(key);
+        return Files.exists(legacy) ? legacy : sharded;
+    }
+
+    @Override
+    public void download(Area area, String key, Path target) throws IOException {
+        Files.copy(getLocalPath(area, key), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream open(Area area, String key, long start, long length) throws IOException {
+        FileChannel channel = FileChannel.open(getLocalPath(area, key), StandardOpenOption.READ);
+        channel.position(start);
+        return new LimitedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public StoredObject stat(Area area, String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(getLocalPath(area, key), BasicFileAttributes.class);
+            return new StoredObject(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean delete(Area area, String key) throws IOException {
+        return Files.deleteIfExists(getLocalPath(area, key));
+    }
+
+    private Path shardedPath(Area area, String key) {
+        String[] shard = StorageKeys.shard(key);
+        return root(area).resolve(shard[0]).resolve(shard[1]).resolve(key);
+    }
+
+    private Path root(Area area) {
+        return Paths.get(area == Area.TEMP ? tempDir : outputDir);
+    }
+
+    /**
+     * Stops reading after the requested range and closes the underlying channel
+     */
+    private static class LimitedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long length) {
+            this.in = in;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package pe.yuseok.kim.hwpconvert.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Keeps files in an S3-compatible object store (AWS S3, MinIO, ...).
+ * Objects are stored as "prefix/area/ab/cd/key" using the same hash sharding as the file
+ * system backend, which also spreads keys over S3 partitions. Files larger than the multipart
+ * threshold are uploaded in parts. Conversions still run on local files in the work directory.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "conversion.storage.type", havingValue = "s3")
+public class S3StorageService implements StorageService {
+
+    @Value("${conversion.temp-dir:./temp}")
+    private String tempDir;
+
+    @Value("${conversion.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${conversion.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${conversion.storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${conversion.storage.s3.prefix:}")
+    private String prefix;
+
+    @Value("${conversion.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${conversion.storage.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${conversion.storage.s3.path-style-access:true}")
+    private boolean pathStyleAccess;
+
+    @Value("${conversion.storage.s3.multipart-threshold:16MB}")
+    private DataSize multipartThreshold;
+
+    @Value("${conversion.storage.s3.part-size:8MB}")
+    private DataSize partSize;
+
+    private S3Client s3Client;
+
+    @PostConstruct
+    public void init() {
+        AwsCredentialsProvider credentials = accessKey.isEmpty()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .forcePathStyle(pathStyleAccess);
+        if (!endpoint.isEmpty()) {
+            // MinIO and other S3-compatible stores
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        s3Client = builder.build();
+        log.info("Using S3 storage: bucket {} at {}", bucket, endpoint.isEmpty() ? "AWS" : endpoint);
+    }
+
+    @PreDestroy
+    public void close() {
+        s3Client.close();
+    }
+
+    @Override
+    public Path getWorkDir() throws IOException {
+        return Files.createDirectories(Paths.get(tempDir, "work"));
+    }
+
+    @Override
+    public void put(Area area, String key, Path source) throws IOException {
+        String objectKey = objectKey(area, key);
+        long size = Files.size(source);
+        try {
+            if (size > multipartThreshold.toBytes()) {
+                putMultipart(objectKey, source, size);
+            } else {
+                s3Client.putObject(request -> request.bucket(bucket).key(objectKey).contentLength(size),
+                        RequestBody.fromFile(source));
+            }
+        } catch (S3Exception e) {
+            throw new IOException("Failed to upload " + objectKey, e);
+        }
+        Files.delete(source);
+    }
+
+    private void putMultipart(String objectKey, Path source, long size) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(request -> request.bucket(bucket).key(objectKey)).uploadId();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            List<CompletedPart> parts = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.allocate((int) partSize.toBytes());
+            int partNumber = 1;
+            for (long position = 0; position < size; partNumber++) {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) <= 0) {
+                        break;
+                    }
+                }
+                buffer.flip();
+                int length = buffer.remaining();
+                if (length == 0) {
+                    throw new IOException("Source " + source + " ended at " + position + " of " + size + " bytes");
+                }
+                int number = partNumber;
+
+                String etag = s3Client.uploadPart(request -> request.bucket(bucket).key(objectKey)
+                                .uploadId(uploadId).partNumber(number).contentLength((long) length),
+                        RequestBody.fromByteBuffer(buffer)).eTag();
+                parts.add(CompletedPart.builder().partNumber(number).eTag(etag).build());
+                position += length;
+            }
+
+            s3Client.completeMultipartUpload(request -> request.bucket(bucket).key(objectKey).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+            log.debug("Uploaded {} in {} parts", objectKey, parts.size());
+        } catch (IOException | RuntimeException e) {
+            s3Client.abortMultipartUpload(request -> request.bucket(bucket).key(objectKey).uploadId(uploadId));
+            throw e;
+        }
+    }
+
+    @Override
+    public Path getLocalPath(Area area, String key) {
+        return null;
+    }
+
+    @Override
+    public void download(Area area, String key, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            s3Client.getObject(request -> request.bucket(bucket).key(objectKey(area, key)),
+                    ResponseTransformer.toFile(target));
+        } catch (S3Exception e) {
+            throw new IOException("Failed to download " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(Area area, String key, long start, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        try {
+            return s3Client.getObject(request -> request.bucket(bucket).key(objectKey(area, key))
+                    .range("bytes=" + start + "-" + (start + length - 1)));
+        } catch (S3Exception e) {
+            throw new IOException("Failed to read " + key, e);
+        }
+    }
+
+    @Override
+    public StoredObject stat(Area area, String key) throws IOException {
+        try {
+            HeadObjectResponse head = s3Client.headObject(request -> request.bucket(bucket).key(objectKey(area, key)));
+            return new StoredObject(head.contentLength(), head.lastModified().toEpochMilli());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return null;
+            }
+            throw new IOException("Failed to read " + key, e);
+        }
+    }
+
+    @Override
+    public boolean delete(Area area, String key) throws IOException {
+        // DeleteObject succeeds for missing keys too, so there is no HEAD to find out whether the object existed
+        try {
+            s3Client.deleteObject(request -> request.bucket(bucket).key(objectKey(area, key)));
+            return true;
+        } catch (S3Exception e) {
+            throw new IOException("Failed to delete " + key, e);
+        }
+    }
+
+    private String objectKey(Area area, String key) {
+        String[] shard = StorageKeys.shard(key);
+        String areaPrefix = area.name().toLowerCase() + "/" + shard[0] + "/" + shard[1] + "/" + key;
+        return prefix.isEmpty() ? areaPrefix : prefix + "/" + areaPrefix;
+    }
+}
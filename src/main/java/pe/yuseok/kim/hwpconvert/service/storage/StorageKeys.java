@@ -0,0 +1,48 @@
+package pe.yuseok.kim.hwpconvert.service.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Maps storage keys to hash-sharded locations ("ab/cd/key"), so that no directory or
+ * key prefix ever holds more than a small fraction of the files
+ */
+final class StorageKeys {
+
+    private StorageKeys() {
+    }
+
+    /**
+     * Checks that a key is a plain file name
+     * @throws IllegalArgumentException if the key is empty or could escape its area
+     */
+    static String validate(String key) {
+        if (key == null || key.isBlank() || key.contains("/") || key.contains("\\")
+                || key.equals(".") || key.equals("..")) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return key;
+    }
+
+    /**
+     * Returns the two levels of hex prefixes a key is sharded under
+     */
+    static String[] shard(String key) {
+        byte[] hash = md5().digest(validate(key).getBytes(StandardCharsets.UTF_8));
+        HexFormat hex = HexFormat.of();
+        return new String[] {
+                hex.toHexDigits(hash[0]),
+                hex.toHexDigits(hash[1])
+        };
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package pe.yuseok.kim.hwpconvert.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Stores uploaded and converted files.
+ * Files are addressed by area and key (a plain file name such as the stored or converted
+ * filename of a document). Conversions still work on local files: they are written to the
+ * work directory first and then handed to the storage with {@link #put}.
+ */
+public interface StorageService {
+
+    enum Area {
+        TEMP,   // uploads waiting for conversion
+        OUTPUT  // converted files
+    }
+
+    /**
+     * Returns a local scratch directory for files that are being written or converted
+     */
+    Path getWorkDir() throws IOException;
+
+    /**
+     * Moves a local file into the storage. The source file no longer exists afterwards
+     * @param area The area to store the file in
+     * @param key The key of the stored file
+     * @param source The local file
+     */
+    void put(Area area, String key, Path source) throws IOException;
+
+    /**
+     * Returns the stored file as a local path, so it can be read in place or sent with sendfile
+     * @return The local path, or null if the backend does not keep files on the local file system
+     */
+    Path getLocalPath(Area area, String key);
+
+    /**
+     * Copies a stored file to a local path
+     */
+    void download(Area area, String key, Path target) throws IOException;
+
+    /**
+     * Opens a byte range of a stored file
+     * @param start Offset of the first byte
+     * @param length Number of bytes to read
+     */
+    InputStream open(Area area, String key, long start, long length) throws IOException;
+
+    /**
+     * Returns the size and modification time of a stored file
+     * @return The file details, or null if there is no such file
+     */
+    StoredObject stat(Area area, String key) throws IOException;
+
+    /**
+     * Deletes a stored file; deleting a file that does not exist is not an error
+     * @return true if the file existed, or if the store cannot tell without another request
+     */
+    boolean delete(Area area, String key) throws IOException;
+
+    /**
+     * Size and modification time of a stored file
+     */
+    record StoredObject(long size, long lastModified) {
+    }
+}
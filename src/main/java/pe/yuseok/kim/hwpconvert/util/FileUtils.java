@@ -2,9 +2,11 @@ package pe.yuseok.kim.hwpconvert.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -37,7 +39,9 @@ public class FileUtils {
     }
     
     /**
-     * Deletes files older than a specified number of days
+     * Deletes files older than a specified number of days.
+     * This scans the whole directory; stored documents and uploads are expired through
+     * the indexes swept by CleanupService instead
      * @param days Number of days
      * @param directory Directory to clean up
      */
@@ -47,25 +51,20 @@ public class FileUtils {
             return;
         }
         
-        try {
-            Files.list(dirPath)
-                .filter(Files::isRegularFile)
-                .filter(path -> {
-                    try {
-                        return Files.getLastModifiedTime(path).toMillis() < 
-                               System.currentTimeMillis() - days * 86400000L;
-                    } catch (IOException e) {
-                        return false;
-                    }
-                })
-                .forEach(path -> {
-                    try {
+        long cutoff = System.currentTimeMillis() - days * 86400000L;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dirPath)) {
+            for (Path path : files) {
+                try {
+                    // One stat per entry, which also tells regular files apart
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    if (attributes.isRegularFile() && attributes.lastModifiedTime().toMillis() < cutoff) {
                         Files.delete(path);
                         log.info("Deleted old file: {}", path);
-                    } catch (IOException e) {
-                        log.warn("Failed to delete file: {}", path, e);
                     }
-                });
+                } catch (IOException e) {
+                    log.warn("Failed to delete file: {}", path, e);
+                }
+            }
         } catch (IOException e) {
             log.error("Error during file cleanup", e);
         }
@@ -0,0 +1,142 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache hits, misses and eviction against an in-memory stand-in for the LRU set and size counter
+ */
+class ConversionCacheServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<Object, Double> lru = new HashMap<>();
+    private final AtomicLong size = new AtomicLong();
+    private ConversionCacheService cacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ZSetOperations<String, Object> zSetOperations = mock(ZSetOperations.class);
+        ValueOperations<String, Object> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        when(zSetOperations.add(anyString(), any(), anyDouble())).thenAnswer(invocation -> {
+            lru.put(invocation.getArgument(1), invocation.getArgument(2));
+            return true;
+        });
+        when(zSetOperations.popMin(anyString())).thenAnswer(invocation -> lru.entrySet().stream()
+                .min(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                .map(oldest -> {
+                    lru.remove(oldest.getKey());
+                    return new DefaultTypedTuple<>(oldest.getKey(), oldest.getValue());
+                })
+                .orElse(null));
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> size.get());
+        when(valueOperations.increment(anyString(), anyLong()))
+                .thenAnswer(invocation -> size.addAndGet(invocation.<Long>getArgument(1)));
+        when(valueOperations.decrement(anyString(), anyLong()))
+                .thenAnswer(invocation -> size.addAndGet(-invocation.<Long>getArgument(1)));
+
+        cacheService = new ConversionCacheService(redisTemplate);
+        ReflectionTestUtils.setField(cacheService, "enabled", true);
+        ReflectionTestUtils.setField(cacheService, "cacheDir", tempDir.resolve("cache").toString());
+        ReflectionTestUtils.setField(cacheService, "maxSize", DataSize.ofBytes(10));
+    }
+
+    @Test
+    void keyIncludesFormatAndConverterVersion() {
+        assertEquals("abc-docx-v1.2_opt_x", cacheService.cacheKey("abc", "DOCX", "1.2+opt/x"));
+        assertNotEquals(cacheService.cacheKey("abc", "docx", "1.2"), cacheService.cacheKey("abc", "docx", "1.3"));
+        assertNull(cacheService.cacheKey("abc", "docx", null));
+
+        ReflectionTestUtils.setField(cacheService, "enabled", false);
+        assertNull(cacheService.cacheKey("abc", "docx", "1.2"));
+    }
+
+    @Test
+    void missWhenNothingIsCached() {
+        String cacheKey = cacheService.cacheKey("abc", "docx", "1");
+
+        assertFalse(cacheService.linkCachedOutput(cacheKey, tempDir.resolve("out/a.docx")));
+        assertFalse(cacheService.linkCachedOutput(null, tempDir.resolve("out/a.docx")));
+        assertFalse(Files.exists(tempDir.resolve("out/a.docx")));
+    }
+
+    @Test
+    void hitLinksTheCachedOutput() throws Exception {
+        String cacheKey = cacheService.cacheKey("abc", "docx", "1");
+        Path output = Files.write(tempDir.resolve("converted.docx"), new byte[] {1, 2, 3});
+        cacheService.store(cacheKey, output);
+
+        Path target = tempDir.resolve("out/b.docx");
+        assertTrue(cacheService.linkCachedOutput(cacheKey, target));
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(target));
+        assertEquals(3, size.get());
+        assertTrue(lru.containsKey(cacheKey));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() throws Exception {
+        Path older = store("older", 8);
+        lru.put("older", 1.0);
+        Path newer = store("newer", 8);
+
+        assertFalse(Files.exists(older));
+        assertTrue(Files.exists(newer));
+        assertEquals(8, size.get());
+        assertFalse(lru.containsKey("older"));
+        assertTrue(lru.containsKey("newer"));
+    }
+
+    @Test
+    void entryThatCannotBeDeletedIsKept() throws Exception {
+        // A non-empty directory in place of the cached file makes the delete fail
+        Path stuck = Files.createDirectories(tempDir.resolve("cache/stuck"));
+        Files.write(stuck.resolve("child"), new byte[] {0});
+        lru.put("stuck", 1.0);
+        size.set(4);
+
+        store("fresh", 8);
+
+        assertTrue(Files.exists(stuck));
+        assertEquals(1.0, lru.get("stuck"));
+        assertEquals(12, size.get());
+    }
+
+    private Path store(String cacheKey, int bytes) throws Exception {
+        Path output = Files.write(tempDir.resolve(cacheKey + ".docx"), new byte[bytes]);
+        cacheService.store(cacheKey, output);
+        return tempDir.resolve("cache").resolve(cacheKey);
+    }
+}
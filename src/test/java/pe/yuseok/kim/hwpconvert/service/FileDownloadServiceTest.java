@@ -0,0 +1,197 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Range and If-Range handling of {@link FileDownloadService#sendFile} on a 100-byte file
+ * whose bytes are 0, 1, ..., 99
+ */
+class FileDownloadServiceTest {
+
+    private static final int LENGTH = 100;
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+    private static final String ETAG = "\"" + Long.toHexString(LENGTH) + "-" + Long.toHexString(LAST_MODIFIED) + "\"";
+
+    @TempDir
+    Path tempDir;
+
+    private final FileDownloadService downloadService = new FileDownloadService(null);
+    private Path file;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.write(tempDir.resolve("converted.docx"), content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(LAST_MODIFIED));
+    }
+
+    @Test
+    void suffixRangeSendsTheLastBytes() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=-10"));
+
+        assertPartial(response, 90, 99);
+    }
+
+    @Test
+    void suffixRangeLongerThanTheFileSendsAllOfIt() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=-500"));
+
+        assertPartial(response, 0, 99);
+    }
+
+    @Test
+    void openEndedRangeRunsToTheEnd() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=95-"));
+
+        assertPartial(response, 95, 99);
+    }
+
+    @Test
+    void endPastTheFileIsClamped() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=50-1000"));
+
+        assertPartial(response, 50, 99);
+    }
+
+    @Test
+    void endBeforeStartIsIgnored() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=20-10"));
+
+        assertFull(response);
+    }
+
+    @Test
+    void multipleRangesAreIgnored() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=0-9,20-29"));
+
+        assertFull(response);
+    }
+
+    @Test
+    void startPastTheEndIsUnsatisfiable() throws Exception {
+        MockHttpServletResponse response = send(rangeRequest("bytes=100-"));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + LENGTH, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void ifRangeWithTheCurrentEtagSendsTheRange() throws Exception {
+        MockHttpServletRequest request = rangeRequest("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+        assertPartial(send(request), 0, 9);
+    }
+
+    @Test
+    void ifRangeWithAnotherEtagSendsTheFullBody() throws Exception {
+        MockHttpServletRequest request = rangeRequest("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        assertFull(send(request));
+    }
+
+    @Test
+    void ifRangeWithAWeakEtagSendsTheFullBody() throws Exception {
+        MockHttpServletRequest request = rangeRequest("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "W/" + ETAG);
+
+        assertFull(send(request));
+    }
+
+    @Test
+    void ifRangeWithTheLastModifiedDateSendsTheRange() throws Exception {
+        MockHttpServletRequest request = rangeRequest("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, httpDate(LAST_MODIFIED));
+
+        assertPartial(send(request), 0, 9);
+    }
+
+    @Test
+    void ifRangeWithAnotherDateSendsTheFullBody() throws Exception {
+        MockHttpServletRequest request = rangeRequest("bytes=0-9");
+        request.addHeader(HttpHeaders.IF_RANGE, httpDate(LAST_MODIFIED - 60_000));
+
+        assertFull(send(request));
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/download");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(LENGTH, response.getContentLengthLong());
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void sendfileGetsTheRangeWithAnExclusiveEnd() throws Exception {
+        MockHttpServletRequest request = rangeRequest("bytes=10-19");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(file.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(20L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        downloadService.sendFile(file, "application/octet-stream", null, "attachment", request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest rangeRequest(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/download");
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC));
+    }
+
+    private void assertPartial(MockHttpServletResponse response, int start, int end) {
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes " + start + "-" + end + "/" + LENGTH, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(end - start + 1, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(content, start, end + 1), response.getContentAsByteArray());
+    }
+
+    private void assertFull(MockHttpServletResponse response) {
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(LENGTH, response.getContentLengthLong());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+}
@@ -0,0 +1,198 @@
+package pe.yuseok.kim.hwpconvert.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import pe.yuseok.kim.hwpconvert.controller.UploadController;
+import pe.yuseok.kim.hwpconvert.model.ConversionTask;
+import pe.yuseok.kim.hwpconvert.model.StoredUpload;
+import pe.yuseok.kim.hwpconvert.model.UploadSession;
+import pe.yuseok.kim.hwpconvert.service.storage.StorageService;
+
+/**
+ * Chunks appended to resumable uploads, and the completion of an upload once its last byte arrives.
+ * Chunks are sent through {@link UploadController} where the status code is what the client sees.
+ * Redis is replaced by in-memory maps
+ */
+class UploadServiceTest {
+
+    private static final Principal USER = () -> "alice";
+    private static final int LENGTH = 10;
+
+    @TempDir
+    Path workDir;
+
+    private final Map<String, UploadSession> sessions = new HashMap<>();
+    private final Set<String> claims = new HashSet<>();
+    private ConversionService conversionService;
+    private UploadService uploadService;
+    private UploadController uploadController;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        RedisTemplate<String, UploadSession> sessionTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, UploadSession> sessionValues = mock(ValueOperations.class);
+        when(sessionTemplate.opsForValue()).thenReturn(sessionValues);
+        when(sessionValues.get(anyString())).thenAnswer(invocation -> sessions.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> sessions.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(sessionValues).set(anyString(), any());
+
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, Object> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.opsForZSet()).thenReturn(mock(ZSetOperations.class));
+        when(values.setIfAbsent(anyString(), any(), anyLong(), any(TimeUnit.class)))
+                .thenAnswer(invocation -> claims.add(invocation.getArgument(0)));
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> claims.remove(invocation.<String>getArgument(0)));
+
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.getWorkDir()).thenReturn(workDir);
+
+        conversionService = mock(ConversionService.class);
+        when(conversionService.storeLocalFile(any(), anyString(), any())).thenAnswer(invocation -> new StoredUpload(
+                "stored-key", invocation.getArgument(1), invocation.getArgument(2), LENGTH, "hash", LocalDateTime.now()));
+        when(conversionService.queueStoredFile(anyString(), any(), anyString()))
+                .thenReturn(ConversionTask.builder().id("task-1").build());
+
+        uploadService = new UploadService(sessionTemplate, redisTemplate, conversionService, storageService);
+        ReflectionTestUtils.setField(uploadService, "maxSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(uploadService, "expiryHours", 24L);
+        uploadController = new UploadController(uploadService);
+    }
+
+    @Test
+    void chunksAreAppendedAtTheOffset() throws Exception {
+        UploadSession session = createUpload();
+
+        ResponseEntity<Void> first = patch(session, 0, 4);
+        ResponseEntity<Void> second = patch(session, 4, 6);
+
+        assertEquals(204, first.getStatusCode().value());
+        assertEquals("4", first.getHeaders().getFirst("Upload-Offset"));
+        assertEquals(204, second.getStatusCode().value());
+        assertEquals("task-1", second.getHeaders().getFirst("Conversion-Task-Id"));
+        assertFalse(Files.exists(partFile(session)));
+        assertEquals("COMPLETED", sessions.values().iterator().next().getStatus());
+    }
+
+    @Test
+    void offsetMismatchIsAConflict() throws Exception {
+        UploadSession session = createUpload();
+
+        ResponseEntity<Void> response = patch(session, 5, 5);
+
+        assertEquals(409, response.getStatusCode().value());
+        assertEquals(0, Files.size(partFile(session)));
+    }
+
+    @Test
+    void chunkPastTheDeclaredLengthIsTruncatedAndRejected() throws Exception {
+        UploadSession session = createUpload();
+        patch(session, 0, 4);
+
+        ResponseEntity<Void> response = patch(session, 4, 8);
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(4, Files.size(partFile(session)));
+        verify(conversionService, never()).queueStoredFile(anyString(), any(), anyString());
+    }
+
+    @Test
+    void finalChunkLosingTheClaimIsAConflict() throws Exception {
+        UploadSession session = createUpload();
+        // A concurrent request with the same final chunk has claimed the completion
+        claims.add("conversion:upload:completion:" + session.getId());
+
+        ResponseEntity<Void> response = patch(session, 0, LENGTH);
+
+        assertEquals(409, response.getStatusCode().value());
+        assertTrue(claims.contains("conversion:upload:completion:" + session.getId()));
+        assertEquals(LENGTH, Files.size(partFile(session)));
+        verify(conversionService, never()).storeLocalFile(any(), anyString(), any());
+    }
+
+    @Test
+    void finalChunkRetriedAfterCompletionIsAConflict() throws Exception {
+        UploadSession session = createUpload();
+        patch(session, 0, LENGTH);
+
+        ResponseEntity<Void> retry = patch(session, 0, LENGTH);
+
+        assertEquals(409, retry.getStatusCode().value());
+        verify(conversionService, times(1)).queueStoredFile(anyString(), any(), anyString());
+    }
+
+    @Test
+    void partFileSurvivesAFailedQueue() throws Exception {
+        UploadSession session = createUpload();
+        when(conversionService.queueStoredFile(anyString(), any(), anyString()))
+                .thenThrow(new RuntimeException("Redis is down"))
+                .thenReturn(ConversionTask.builder().id("task-2").build());
+
+        assertThrows(RuntimeException.class, () -> uploadService.appendChunk(
+                uploadService.getUpload(session.getId(), USER.getName()), 0, chunk(LENGTH)));
+
+        assertEquals(LENGTH, Files.size(partFile(session)));
+        assertFalse(claims.contains("conversion:upload:completion:" + session.getId()));
+        verify(conversionService).discardUpload(any());
+
+        // An empty chunk at the final offset completes the upload again
+        ResponseEntity<Void> retry = patch(session, LENGTH, 0);
+
+        assertEquals(204, retry.getStatusCode().value());
+        assertEquals("task-2", retry.getHeaders().getFirst("Conversion-Task-Id"));
+        assertFalse(Files.exists(partFile(session)));
+    }
+
+    private UploadSession createUpload() throws Exception {
+        return uploadService.createUpload(USER.getName(), "report.hwpx", "application/vnd.hancom.hwpx", "docx", LENGTH);
+    }
+
+    private ResponseEntity<Void> patch(UploadSession session, long offset, int size) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/uploads/" + session.getId());
+        request.setContent(new byte[size]);
+        return uploadController.uploadChunk(session.getId(), offset, request, USER);
+    }
+
+    private Path partFile(UploadSession session) {
+        return workDir.resolve("uploads").resolve(session.getId() + ".part");
+    }
+
+    private static ByteArrayInputStream chunk(int size) {
+        return new ByteArrayInputStream(new byte[size]);
+    }
+}
@@ -0,0 +1,62 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPicture;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+/**
+ * Describes the body of a saved DOCX document one line per element, so that documents built in
+ * different ways can be compared. Relationship ids of images depend on the order they were added
+ * in, so pictures are described by the checksum of their data
+ */
+final class DocxBodyDescription {
+
+    private DocxBodyDescription() {
+    }
+
+    static List<String> describe(byte[] docx) throws IOException {
+        List<String> elements = new ArrayList<>();
+        try (XWPFDocument docxDocument = new XWPFDocument(new ByteArrayInputStream(docx))) {
+            for (IBodyElement element : docxDocument.getBodyElements()) {
+                if (element instanceof XWPFParagraph paragraph) {
+                    elements.add(describe(paragraph));
+                } else if (element instanceof XWPFTable table) {
+                    elements.add(describe(table));
+                }
+            }
+        }
+        return elements;
+    }
+
+    private static String describe(XWPFParagraph paragraph) {
+        StringBuilder description = new StringBuilder("p[").append(paragraph.getStyle()).append("]");
+        for (XWPFRun run : paragraph.getRuns()) {
+            description.append(' ').append(run.getStyle()).append(':').append(run.text());
+            for (XWPFPicture picture : run.getEmbeddedPictures()) {
+                description.append(" img:").append(picture.getPictureData().getChecksum());
+            }
+        }
+        return description.toString();
+    }
+
+    private static String describe(XWPFTable table) {
+        StringBuilder description = new StringBuilder("table");
+        for (XWPFTableRow row : table.getRows()) {
+            description.append(" |");
+            for (XWPFTableCell cell : row.getTableCells()) {
+                description.append(' ').append(cell.getText().trim()).append(" |");
+            }
+        }
+        return description.toString();
+    }
+}
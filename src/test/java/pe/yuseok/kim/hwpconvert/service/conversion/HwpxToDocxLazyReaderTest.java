@@ -0,0 +1,52 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import pe.yuseok.kim.hwpconvert.model.ConversionResult;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.HwpxCorpusGenerator;
+
+/**
+ * An HWPX file read section by section converts to the same document as the file read completely
+ */
+class HwpxToDocxLazyReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lazyReaderMatchesEagerReader() throws Exception {
+        Path source = tempDir.resolve("corpus.hwpx");
+        HwpxCorpusGenerator.write(new HwpxCorpusGenerator.Spec()
+                .sections(3)
+                .paragraphs(60)
+                .tables(3)
+                .tableRows(4)
+                .tableCols(3)
+                .images(6)
+                .imageSide(16)
+                .seed(11), source);
+
+        assertEquals(convert(source, false), convert(source, true));
+    }
+
+    private List<String> convert(Path source, boolean lazyReader) throws Exception {
+        HwpxToDocxStrategy strategy = new HwpxToDocxStrategy(new ImageOptimizer());
+        ReflectionTestUtils.setField(strategy, "lazyReader", lazyReader);
+        strategy.init();
+        Path outputDirectory = Files.createDirectories(tempDir.resolve(lazyReader ? "lazy" : "eager"));
+
+        ConversionResult result = strategy.convert(source.toFile(), outputDirectory.toFile(), "docx");
+
+        assertTrue(result.isSuccess(), result.getErrorMessage());
+        return DocxBodyDescription.describe(Files.readAllBytes(Path.of(result.getDownloadUrl())));
+    }
+}
@@ -0,0 +1,56 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import pe.yuseok.kim.hwpconvert.service.conversion.hwpx.HwpxCorpusGenerator;
+
+/**
+ * Sections converted in parallel and appended as fragments give the same document as sections
+ * converted one after another
+ */
+class HwpxToDocxParallelTest {
+
+    @Test
+    void parallelSectionsMatchSequentialOutput() throws Exception {
+        HwpxCorpusGenerator.Spec spec = new HwpxCorpusGenerator.Spec()
+                .sections(4)
+                .paragraphs(80)
+                .tables(4)
+                .tableRows(4)
+                .tableCols(3)
+                .images(8)
+                .imageSide(16)
+                .seed(7);
+
+        List<String> sequential = DocxBodyDescription.describe(convert(HwpxCorpusGenerator.generate(spec), false));
+        List<String> parallel = DocxBodyDescription.describe(convert(HwpxCorpusGenerator.generate(spec), true));
+
+        assertEquals(sequential, parallel);
+    }
+
+    /**
+     * Converts the document and returns it saved, so the parts appended from fragments are read back
+     */
+    private static byte[] convert(HWPXFile hwpxFile, boolean parallelSections) throws Exception {
+        HwpxToDocxStrategy strategy = new HwpxToDocxStrategy(new ImageOptimizer());
+        ReflectionTestUtils.setField(strategy, "parallelSections", parallelSections);
+        ReflectionTestUtils.setField(strategy, "sectionParallelism", 4);
+        strategy.init();
+        try (XWPFDocument docxDocument = new XWPFDocument()) {
+            strategy.transform(hwpxFile, docxDocument);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            docxDocument.write(out);
+            return out.toByteArray();
+        } finally {
+            strategy.shutdown();
+        }
+    }
+}
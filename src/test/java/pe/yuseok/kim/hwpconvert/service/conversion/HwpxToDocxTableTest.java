@@ -0,0 +1,95 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Table;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tc;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tr;
+import kr.dogfoot.hwpxlib.tool.blankfilemaker.BlankFileMaker;
+
+/**
+ * Merged cells of HWPX tables as DOCX gridSpan and vMerge. Each cell is written as
+ * "gridSpan/vMerge", where vMerge is "-", "restart" or "continue"
+ */
+class HwpxToDocxTableTest {
+
+    /**
+     * A 3-column, 4-row table whose spans overlap:
+     * <pre>
+     * | A (2x2)     | B |
+     * |             | C |   C spans 3 rows, one more than the table has left
+     * | D (3 cols)  |   |   D is clamped to the 2 columns C leaves free
+     * | E |               short row: padded, then C continues
+     * </pre>
+     */
+    @Test
+    void overlappingSpans() throws Exception {
+        HWPXFile hwpxFile = BlankFileMaker.make();
+        Table table = hwpxFile.sectionXMLFileList().get(0).addNewPara().addNewRun().addNewTable();
+        Tr row0 = table.addNewTr();
+        addCell(row0, "A", 2, 2);
+        addCell(row0, "B", 1, 1);
+        addCell(table.addNewTr(), "C", 1, 3);
+        addCell(table.addNewTr(), "D", 3, 1);
+        addCell(table.addNewTr(), "E", 1, 1);
+
+        List<List<String>> rows = convert(hwpxFile);
+
+        assertEquals(4, rows.size());
+        assertEquals(List.of("2/restart:A", "1/-:B"), rows.get(0));
+        assertEquals(List.of("2/continue:", "1/restart:C"), rows.get(1));
+        assertEquals(List.of("2/-:D", "1/continue:"), rows.get(2));
+        assertEquals(List.of("1/-:E", "1/-:", "1/continue:"), rows.get(3));
+    }
+
+    /**
+     * Converts the document and describes the rows of its only table
+     */
+    private static List<List<String>> convert(HWPXFile hwpxFile) throws Exception {
+        try (XWPFDocument docxDocument = new XWPFDocument()) {
+            new HwpxToDocxStrategy(new ImageOptimizer()).transform(hwpxFile, docxDocument);
+            assertEquals(1, docxDocument.getTables().size());
+            XWPFTable docxTable = docxDocument.getTables().get(0);
+            List<List<String>> rows = new ArrayList<>();
+            for (XWPFTableRow row : docxTable.getRows()) {
+                rows.add(describe(row));
+            }
+            return rows;
+        }
+    }
+
+    private static void addCell(Tr row, String text, int colSpan, int rowSpan) {
+        Tc cell = row.addNewTc();
+        cell.createCellSpan();
+        cell.cellSpan().colSpan((short) colSpan);
+        cell.cellSpan().rowSpan((short) rowSpan);
+        cell.createSubList();
+        cell.subList().addNewPara().addNewRun().addNewT().addText(text);
+    }
+
+    private static List<String> describe(XWPFTableRow row) {
+        List<String> cells = new ArrayList<>();
+        for (XWPFTableCell cell : row.getTableCells()) {
+            CTTcPr tcPr = cell.getCTTc().getTcPr();
+            int gridSpan = tcPr != null && tcPr.isSetGridSpan() ? tcPr.getGridSpan().getVal().intValue() : 1;
+            String vMerge = "-";
+            if (tcPr != null && tcPr.isSetVMerge()) {
+                vMerge = STMerge.RESTART.equals(tcPr.getVMerge().getVal()) ? "restart" : "continue";
+            }
+            cells.add(gridSpan + "/" + vMerge + ":" + cell.getText().trim());
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,108 @@
+package pe.yuseok.kim.hwpconvert.service.conversion;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class ImageMetadataTest {
+
+    private static final byte[] MARKER = "hwpconvert-metadata".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void stripsPngTextChunks() throws IOException {
+        byte[] png = encode("png");
+        // After the signature (8 bytes) and IHDR (25 bytes)
+        byte[] withText = insert(png, 33, pngChunk("tEXt", MARKER));
+
+        byte[] stripped = ImageMetadata.stripPng(withText);
+
+        assertNotNull(stripped);
+        assertArrayEquals(png, stripped);
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(stripped)));
+    }
+
+    @Test
+    void stripsJpegExifAndComments() throws IOException {
+        byte[] jpeg = encode("jpeg");
+        byte[] withMetadata = insert(jpeg, 2, concat(jpegSegment(0xe1, MARKER), jpegSegment(0xfe, MARKER)));
+
+        byte[] stripped = ImageMetadata.stripJpeg(withMetadata);
+
+        assertNotNull(stripped);
+        assertEquals(jpeg.length, stripped.length);
+        assertFalse(contains(stripped, MARKER));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(stripped));
+        assertEquals(16, image.getWidth());
+    }
+
+    @Test
+    void rejectsOtherData() {
+        assertNull(ImageMetadata.stripPng(new byte[] {1, 2, 3}));
+        assertNull(ImageMetadata.stripJpeg(new byte[] {1, 2, 3, 4}));
+    }
+
+    private static byte[] encode(String format) throws IOException {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                image.setRGB(x, y, x * 0x100000 + y * 0x1000);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] pngChunk(String type, byte[] data) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        return ByteBuffer.allocate(12 + data.length)
+                .putInt(data.length).put(typeBytes).put(data).putInt((int) crc.getValue())
+                .array();
+    }
+
+    private static byte[] jpegSegment(int marker, byte[] data) {
+        return ByteBuffer.allocate(4 + data.length)
+                .put((byte) 0xff).put((byte) marker).putShort((short) (2 + data.length)).put(data)
+                .array();
+    }
+
+    private static byte[] insert(byte[] data, int offset, byte[] inserted) {
+        return ByteBuffer.allocate(data.length + inserted.length)
+                .put(data, 0, offset).put(inserted).put(data, offset, data.length - offset)
+                .array();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        return ByteBuffer.allocate(first.length + second.length).put(first).put(second).array();
+    }
+
+    private static boolean contains(byte[] data, byte[] part) {
+        outer:
+        for (int i = 0; i + part.length <= data.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (data[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
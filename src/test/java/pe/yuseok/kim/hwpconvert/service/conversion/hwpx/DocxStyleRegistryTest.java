@@ -0,0 +1,104 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTInd;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrGeneral;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.CharPr;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.ParaPr;
+import kr.dogfoot.hwpxlib.tool.blankfilemaker.BlankFileMaker;
+
+/**
+ * paraPr and charPr entries with known values, and the properties of the DOCX styles made from them.
+ * HWP units are 1/7200 inch, twips 1/1440 inch, so 5 HWP units are one twip
+ */
+class DocxStyleRegistryTest {
+
+    @Test
+    void mapsMarginsToIndentationAndSpacing() throws Exception {
+        HWPXFile hwpxFile = BlankFileMaker.make();
+        ParaPr paraPr = addParaPr(hwpxFile, "900");
+        setMargins(paraPr, 7200, 3600, -1000, 1000, 500);
+
+        try (XWPFDocument docxDocument = new XWPFDocument()) {
+            CTPPrGeneral pPr = paragraphProperties(hwpxFile, docxDocument, "900");
+
+            CTInd ind = pPr.getInd();
+            assertEquals("1440", ind.getLeft().toString());
+            assertEquals("720", ind.getRight().toString());
+            assertEquals("200", ind.getHanging().toString());
+            assertFalse(ind.isSetFirstLine());
+            assertEquals("200", pPr.getSpacing().getBefore().toString());
+            assertEquals("100", pPr.getSpacing().getAfter().toString());
+        }
+    }
+
+    @Test
+    void positiveIntentIsAFirstLineIndent() throws Exception {
+        HWPXFile hwpxFile = BlankFileMaker.make();
+        ParaPr paraPr = addParaPr(hwpxFile, "901");
+        setMargins(paraPr, 0, 0, 2000, 0, 0);
+
+        try (XWPFDocument docxDocument = new XWPFDocument()) {
+            CTInd ind = paragraphProperties(hwpxFile, docxDocument, "901").getInd();
+            assertEquals("0", ind.getLeft().toString());
+            assertEquals("400", ind.getFirstLine().toString());
+            assertFalse(ind.isSetHanging());
+        }
+    }
+
+    /**
+     * Heights are 1/100 pt; DOCX sizes are half points
+     */
+    @Test
+    void mapsHeightToHalfPoints() throws Exception {
+        HWPXFile hwpxFile = BlankFileMaker.make();
+        CharPr charPr = hwpxFile.headerXMLFile().refList().charProperties().addNew();
+        charPr.id("900");
+        charPr.height(1050);
+        charPr.textColor("#C00000");
+
+        try (XWPFDocument docxDocument = new XWPFDocument()) {
+            DocxStyleRegistry registry = new DocxStyleRegistry(docxDocument.createStyles(), HeaderIndex.build(hwpxFile));
+            String styleId = registry.characterStyleId("900");
+            CTRPr rPr = docxDocument.getStyles().getStyle(styleId).getCTStyle().getRPr();
+
+            assertEquals("21", rPr.getSzArray(0).getVal().toString());
+            assertEquals("C00000", rPr.getColorArray(0).xgetVal().getStringValue());
+            assertNull(registry.characterStyleId("unknown"));
+        }
+    }
+
+    private static ParaPr addParaPr(HWPXFile hwpxFile, String id) {
+        ParaPr paraPr = hwpxFile.headerXMLFile().refList().paraProperties().addNew();
+        paraPr.id(id);
+        return paraPr;
+    }
+
+    private static void setMargins(ParaPr paraPr, int left, int right, int intent, int prev, int next) {
+        paraPr.createMargin();
+        paraPr.margin().createLeft();
+        paraPr.margin().left().value(left);
+        paraPr.margin().createRight();
+        paraPr.margin().right().value(right);
+        paraPr.margin().createIntent();
+        paraPr.margin().intent().value(intent);
+        paraPr.margin().createPrev();
+        paraPr.margin().prev().value(prev);
+        paraPr.margin().createNext();
+        paraPr.margin().next().value(next);
+    }
+
+    private static CTPPrGeneral paragraphProperties(HWPXFile hwpxFile, XWPFDocument docxDocument, String paraPrId) {
+        DocxStyleRegistry registry = new DocxStyleRegistry(docxDocument.createStyles(), HeaderIndex.build(hwpxFile));
+        String styleId = registry.paragraphStyleId(paraPrId);
+        return docxDocument.getStyles().getStyle(styleId).getCTStyle().getPPr();
+    }
+}
@@ -0,0 +1,72 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.XmlCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pe.yuseok.kim.hwpconvert.service.conversion.DocxPackageValidator;
+
+/**
+ * Round trips through the streaming writer: the package must pass validation and reopen in POI
+ */
+class StreamingDocxWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * POI puts xml:space="preserve" on w:t when the text has leading or trailing spaces
+     */
+    @Test
+    void keepsXmlSpaceOnText() throws Exception {
+        Path docx = tempDir.resolve("space.docx");
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(docx)) {
+            StreamingDocxWriter writer = new StreamingDocxWriter(out);
+            document.createParagraph().createRun().setText(" leading space");
+            document.createParagraph().createRun().setText("trailing space ");
+            writer.finish(document);
+        }
+
+        DocxPackageValidator.validate(docx);
+        try (InputStream in = Files.newInputStream(docx); XWPFDocument reopened = new XWPFDocument(in)) {
+            assertEquals(2, reopened.getParagraphs().size());
+            assertEquals(" leading space", reopened.getParagraphs().get(0).getText());
+            assertEquals("trailing space ", reopened.getParagraphs().get(1).getText());
+        }
+    }
+
+    /**
+     * An element and two of its attributes in a namespace the writer does not predeclare
+     */
+    @Test
+    void declaresOtherNamespacesOncePerElement() throws Exception {
+        String namespace = "urn:example:extension";
+        Path docx = tempDir.resolve("namespaces.docx");
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(docx)) {
+            StreamingDocxWriter writer = new StreamingDocxWriter(out);
+            XWPFRun run = document.createParagraph().createRun();
+            run.setText("text");
+            try (XmlCursor cursor = run.getCTR().newCursor()) {
+                cursor.toEndToken();
+                cursor.beginElement("marker", namespace);
+                cursor.insertAttributeWithValue("first", namespace, "1");
+                cursor.insertAttributeWithValue("second", namespace, "2");
+            }
+            writer.finish(document);
+        }
+
+        DocxPackageValidator.validate(docx);
+        try (InputStream in = Files.newInputStream(docx); XWPFDocument reopened = new XWPFDocument(in)) {
+            assertEquals("text", reopened.getParagraphs().get(0).getText());
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+import kr.dogfoot.hwpxlib.object.content.context_hpf.ManifestItem;
+import kr.dogfoot.hwpxlib.object.content.header_xml.RefList;
+import kr.dogfoot.hwpxlib.object.content.header_xml.enumtype.HorizontalAlign2;
+import kr.dogfoot.hwpxlib.object.content.header_xml.enumtype.LineSpacingType;
+import kr.dogfoot.hwpxlib.object.content.header_xml.enumtype.LineType3;
+import kr.dogfoot.hwpxlib.object.content.header_xml.enumtype.UnderlineType;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.CharPr;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.ParaPr;
+import kr.dogfoot.hwpxlib.object.content.header_xml.references.fontface.Font;
+import kr.dogfoot.hwpxlib.object.content.section_xml.SectionXMLFile;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Para;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.Run;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Picture;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.Table;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tc;
+import kr.dogfoot.hwpxlib.object.content.section_xml.paragraph.object.table.Tr;
+import kr.dogfoot.hwpxlib.tool.blankfilemaker.BlankFileMaker;
+import kr.dogfoot.hwpxlib.writer.HWPXWriter;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic HWPX documents from a {@link Spec}: body paragraphs whose runs refer to
+ * the header properties at random, tables with horizontal and vertical merges, embedded images
+ * and several sections. Paragraphs, tables and pictures are shuffled into one block sequence and
+ * split evenly over the sections. The same spec always gives the same document, so scaling
+ * curves can be measured reproducibly on any machine.
+ * <p>
+ * Also runs on its own to write a corpus for load tests:
+ * {@code HwpxCorpusGenerator <output dir> [documents=N] [key=value ...]}, with the keys of {@link Spec}.
+ */
+public final class HwpxCorpusGenerator {
+
+    /** HWPUNITs (1/7200 inch) per pixel at 96 dpi */
+    private static final int HWPUNITS_PER_PIXEL = 75;
+    private static final int FONTS = 8;
+    private static final HorizontalAlign2[] ALIGNMENTS = {
+            HorizontalAlign2.JUSTIFY, HorizontalAlign2.LEFT, HorizontalAlign2.CENTER, HorizontalAlign2.RIGHT,
+            HorizontalAlign2.DISTRIBUTE
+    };
+    private static final String[] TEXT_COLORS = {
+            "#000000", "#000000", "#1F3864", "#C00000", "#385623", "#7F7F7F"
+    };
+
+    private enum Block {
+        PARAGRAPH, TABLE, IMAGE
+    }
+
+    /**
+     * What to generate. Setters return the spec, so specs read like presets:
+     * {@code new Spec().paragraphs(5_000).tables(10).images(20).sections(4).seed(7)}
+     */
+    public static final class Spec {
+        private int sections = 1;
+        private int paragraphs = 100;
+        private int runsPerParagraph = 3;
+        private int paraShapes = 20;
+        private int charShapes = 40;
+        private int tables;
+        private int tableRows = 10;
+        private int tableCols = 5;
+        private int groupRows;
+        private double mergeRate;
+        private int images;
+        private int imageSide = 128;
+        private long seed = 42L;
+
+        /** Number of sections the blocks are split over */
+        public Spec sections(int sections) {
+            this.sections = sections;
+            return this;
+        }
+
+        /** Number of body paragraphs, not counting the ones holding tables and pictures */
+        public Spec paragraphs(int paragraphs) {
+            this.paragraphs = paragraphs;
+            return this;
+        }
+
+        public Spec runsPerParagraph(int runsPerParagraph) {
+            this.runsPerParagraph = runsPerParagraph;
+            return this;
+        }
+
+        /** Number of paraPr entries added to the header and used by the paragraphs */
+        public Spec paraShapes(int paraShapes) {
+            this.paraShapes = paraShapes;
+            return this;
+        }
+
+        /** Number of charPr entries added to the header and used by the runs */
+        public Spec charShapes(int charShapes) {
+            this.charShapes = charShapes;
+            return this;
+        }
+
+        public Spec tables(int tables) {
+            this.tables = tables;
+            return this;
+        }
+
+        public Spec tableRows(int tableRows) {
+            this.tableRows = tableRows;
+            return this;
+        }
+
+        public Spec tableCols(int tableCols) {
+            this.tableCols = tableCols;
+            return this;
+        }
+
+        /** Rows grouped under a vertically merged cell in the first column; 0 for no vertical merges */
+        public Spec groupRows(int groupRows) {
+            this.groupRows = groupRows;
+            return this;
+        }
+
+        /** Probability that a cell spans two columns */
+        public Spec mergeRate(double mergeRate) {
+            this.mergeRate = mergeRate;
+            return this;
+        }
+
+        /** Number of pictures, each with its own image */
+        public Spec images(int images) {
+            this.images = images;
+            return this;
+        }
+
+        /** Width and height of the images in pixels; the PNGs do not compress, about 3 bytes per pixel */
+        public Spec imageSide(int imageSide) {
+            this.imageSide = imageSide;
+            return this;
+        }
+
+        public Spec seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets a value by key, as given on the command line
+         * @param key The name of a setter
+         * @param value The value
+         */
+        public Spec set(String key, String value) {
+            switch (key) {
+                case "sections" -> sections(Integer.parseInt(value));
+                case "paragraphs" -> paragraphs(Integer.parseInt(value));
+                case "runsPerParagraph" -> runsPerParagraph(Integer.parseInt(value));
+                case "paraShapes" -> paraShapes(Integer.parseInt(value));
+                case "charShapes" -> charShapes(Integer.parseInt(value));
+                case "tables" -> tables(Integer.parseInt(value));
+                case "tableRows" -> tableRows(Integer.parseInt(value));
+                case "tableCols" -> tableCols(Integer.parseInt(value));
+                case "groupRows" -> groupRows(Integer.parseInt(value));
+                case "mergeRate" -> mergeRate(Double.parseDouble(value));
+                case "images" -> images(Integer.parseInt(value));
+                case "imageSide" -> imageSide(Integer.parseInt(value));
+                case "seed" -> seed(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+            return this;
+        }
+
+        private void validate() {
+            if (sections < 1 || paraShapes < 1 || charShapes < 1 || runsPerParagraph < 1) {
+                throw new IllegalArgumentException("sections, paraShapes, charShapes and runsPerParagraph must be at least 1");
+            }
+            if (paragraphs < 0 || tables < 0 || images < 0 || groupRows < 0) {
+                throw new IllegalArgumentException("Counts must not be negative");
+            }
+            if (tables > 0 && (tableRows < 1 || tableCols < 1)) {
+                throw new IllegalArgumentException("Tables need at least one row and one column");
+            }
+            if (images > 0 && imageSide < 1) {
+                throw new IllegalArgumentException("imageSide must be at least 1");
+            }
+            if (mergeRate < 0 || mergeRate > 1) {
+                throw new IllegalArgumentException("mergeRate must be between 0 and 1");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "sections=" + sections + " paragraphs=" + paragraphs + " runsPerParagraph=" + runsPerParagraph
+                    + " paraShapes=" + paraShapes + " charShapes=" + charShapes + " tables=" + tables
+                    + " tableRows=" + tableRows + " tableCols=" + tableCols + " groupRows=" + groupRows
+                    + " mergeRate=" + mergeRate + " images=" + images + " imageSide=" + imageSide + " seed=" + seed;
+        }
+    }
+
+    private final Spec spec;
+    private final Random random;
+    private HWPXFile hwpxFile;
+    private int firstParaPr;
+    private int firstCharPr;
+    private int nextImage = 1;
+
+    private HwpxCorpusGenerator(Spec spec) {
+        this.spec = spec;
+        this.random = new Random(spec.seed);
+    }
+
+    /**
+     * Builds a document in memory
+     * @param spec What to generate
+     */
+    public static HWPXFile generate(Spec spec) {
+        spec.validate();
+        return new HwpxCorpusGenerator(spec).build();
+    }
+
+    /**
+     * Builds a document and writes it as an HWPX file
+     * @param spec What to generate
+     * @param file The file to write
+     */
+    public static void write(Spec spec, Path file) throws IOException {
+        HWPXFile document = generate(spec);
+        try {
+            HWPXWriter.toFilepath(document, file.toString());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Could not write " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes a corpus of documents that differ only in their seed
+     * @param args The output directory, then key=value settings; documents=N sets the number of files
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: HwpxCorpusGenerator <output dir> [documents=N] [key=value ...]");
+            System.exit(1);
+        }
+        Path outputDir = Files.createDirectories(Path.of(args[0]));
+        Spec spec = new Spec();
+        int documents = 1;
+        for (int i = 1; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value: " + args[i]);
+            }
+            String key = args[i].substring(0, equals);
+            String value = args[i].substring(equals + 1);
+            if ("documents".equals(key)) {
+                documents = Integer.parseInt(value);
+            } else {
+                spec.set(key, value);
+            }
+        }
+
+        long firstSeed = spec.seed;
+        for (int d = 0; d < documents; d++) {
+            spec.seed(firstSeed + d);
+            Path file = outputDir.resolve("corpus-" + spec.seed + ".hwpx");
+            write(spec, file);
+            System.out.printf("%s (%d bytes): %s%n", file, Files.size(file), spec);
+        }
+    }
+
+    private HWPXFile build() {
+        hwpxFile = BlankFileMaker.make();
+        addHeaderProperties();
+
+        List<SectionXMLFile> sections = new ArrayList<>();
+        sections.add(hwpxFile.sectionXMLFileList().get(0));
+        for (int s = 1; s < spec.sections; s++) {
+            sections.add(addSection(s));
+        }
+
+        List<Block> blocks = new ArrayList<>(spec.paragraphs + spec.tables + spec.images);
+        blocks.addAll(Collections.nCopies(spec.paragraphs, Block.PARAGRAPH));
+        blocks.addAll(Collections.nCopies(spec.tables, Block.TABLE));
+        blocks.addAll(Collections.nCopies(spec.images, Block.IMAGE));
+        Collections.shuffle(blocks, random);
+
+        for (int b = 0; b < blocks.size(); b++) {
+            SectionXMLFile section = sections.get((int) ((long) b * spec.sections / blocks.size()));
+            switch (blocks.get(b)) {
+                case PARAGRAPH -> addParagraph(section, b);
+                case TABLE -> addTable(section);
+                case IMAGE -> addPicture(section);
+            }
+        }
+        return hwpxFile;
+    }
+
+    /**
+     * Adds the fonts, paraPr and charPr entries the body refers to. Their alignment, margins, line
+     * spacing, fonts, emphasis and colors are drawn from the seed, so the shapes map to many
+     * distinct styles
+     */
+    private void addHeaderProperties() {
+        RefList refList = hwpxFile.headerXMLFile().refList();
+
+        int firstFont = refList.fontfaces().hangulFontface().countOfFont();
+        for (int i = 0; i < FONTS; i++) {
+            Font font = refList.fontfaces().hangulFontface().addNewFont();
+            font.id(String.valueOf(firstFont + i));
+            font.face("Font " + i);
+        }
+
+        firstParaPr = refList.paraProperties().count();
+        for (int i = 0; i < spec.paraShapes; i++) {
+            ParaPr paraPr = refList.paraProperties().addNew();
+            paraPr.id(String.valueOf(firstParaPr + i));
+
+            paraPr.createAlign();
+            paraPr.align().horizontal(ALIGNMENTS[random.nextInt(ALIGNMENTS.length)]);
+
+            // Margins in HWPUNITs: up to 2 cm of indentation, up to 10 pt before and after
+            paraPr.createMargin();
+            paraPr.margin().createIntent();
+            paraPr.margin().intent().value(random.nextInt(3) * 2_000 - 2_000);
+            paraPr.margin().createLeft();
+            paraPr.margin().left().value(random.nextInt(5) * 1_400);
+            paraPr.margin().createRight();
+            paraPr.margin().right().value(random.nextInt(3) * 1_400);
+            paraPr.margin().createPrev();
+            paraPr.margin().prev().value(random.nextInt(6) * 200);
+            paraPr.margin().createNext();
+            paraPr.margin().next().value(random.nextInt(6) * 200);
+
+            // Mostly proportional spacing (100 to 200 %), sometimes a fixed or minimum height of 12 to 20 pt
+            paraPr.createLineSpacing();
+            int spacing = random.nextInt(10);
+            if (spacing < 7) {
+                paraPr.lineSpacing().type(LineSpacingType.PERCENT);
+                paraPr.lineSpacing().value(100 + 20 * random.nextInt(6));
+            } else {
+                paraPr.lineSpacing().type(spacing < 9 ? LineSpacingType.FIXED : LineSpacingType.AT_LEAST);
+                paraPr.lineSpacing().value(1_200 + 200 * random.nextInt(5));
+            }
+        }
+
+        firstCharPr = refList.charProperties().count();
+        for (int i = 0; i < spec.charShapes; i++) {
+            CharPr charPr = refList.charProperties().addNew();
+            charPr.id(String.valueOf(firstCharPr + i));
+            charPr.height(800 + 100 * random.nextInt(10));
+            charPr.textColor(TEXT_COLORS[random.nextInt(TEXT_COLORS.length)]);
+
+            // Hangul text uses one of the added fonts; the other scripts keep the first font of the blank file
+            charPr.createFontRef();
+            charPr.fontRef().hangul(String.valueOf(firstFont + random.nextInt(FONTS)));
+            charPr.fontRef().latin("0");
+            charPr.fontRef().hanja("0");
+            charPr.fontRef().japanese("0");
+            charPr.fontRef().other("0");
+            charPr.fontRef().symbol("0");
+            charPr.fontRef().user("0");
+
+            if (random.nextInt(4) == 0) {
+                charPr.createBold();
+            }
+            if (random.nextInt(4) == 0) {
+                charPr.createItalic();
+            }
+            if (random.nextInt(8) == 0) {
+                charPr.createUnderline();
+                charPr.underline().type(UnderlineType.BOTTOM);
+                charPr.underline().shape(LineType3.SOLID);
+                charPr.underline().color(charPr.textColor());
+            }
+        }
+    }
+
+    /**
+     * Adds a section with its part in the manifest and the spine, the way the first one is declared
+     */
+    private SectionXMLFile addSection(int index) {
+        String id = "section" + index;
+        ManifestItem item = hwpxFile.contentHPFFile().manifest().addNew();
+        item.id(id);
+        item.href("Contents/" + id + ".xml");
+        item.mediaType("application/xml");
+        hwpxFile.contentHPFFile().spine().addNew().idref(id);
+        return hwpxFile.sectionXMLFileList().addNew();
+    }
+
+    private void addParagraph(SectionXMLFile section, int index) {
+        Para para = section.addNewPara();
+        para.paraPrIDRef(String.valueOf(firstParaPr + random.nextInt(spec.paraShapes)));
+        for (int r = 0; r < spec.runsPerParagraph; r++) {
+            Run run = para.addNewRun();
+            run.charPrIDRef(String.valueOf(firstCharPr + random.nextInt(spec.charShapes)));
+            run.addNewT().addText("문단 " + index + "의 " + r + "번째 글자 모양으로 쓴 본문입니다. ");
+        }
+    }
+
+    /**
+     * Adds a table laid out like a statistical report: with groupRows, the first column groups rows
+     * under a vertically merged cell; other cells span two columns at the merge rate
+     */
+    private void addTable(SectionXMLFile section) {
+        Table table = section.addNewPara().addNewRun().addNewTable();
+        int rows = spec.tableRows;
+        int cols = spec.tableCols;
+        for (int r = 0; r < rows; r++) {
+            Tr row = table.addNewTr();
+            int c = 0;
+            if (spec.groupRows > 0) {
+                if (r % spec.groupRows == 0) {
+                    addCell(row, "그룹 " + (r / spec.groupRows), 1, Math.min(spec.groupRows, rows - r));
+                }
+                // The first column holds the group cell, or is covered by the one above
+                c = 1;
+            }
+            while (c < cols) {
+                int colSpan = c + 1 < cols && random.nextDouble() < spec.mergeRate ? 2 : 1;
+                addCell(row, String.valueOf(random.nextInt(1_000_000)), colSpan, 1);
+                c += colSpan;
+            }
+        }
+    }
+
+    private static void addCell(Tr row, String text, int colSpan, int rowSpan) {
+        Tc cell = row.addNewTc();
+        if (colSpan > 1 || rowSpan > 1) {
+            cell.createCellSpan();
+            cell.cellSpan().colSpan((short) colSpan);
+            cell.cellSpan().rowSpan((short) rowSpan);
+        }
+        cell.createSubList();
+        cell.subList().addNewPara().addNewRun().addNewT().addText(text);
+    }
+
+    /**
+     * Adds a picture in its own paragraph, embedding a new PNG image
+     */
+    private void addPicture(SectionXMLFile section) {
+        String id = "image" + nextImage++;
+        ManifestItem item = hwpxFile.contentHPFFile().manifest().addNew();
+        item.id(id);
+        item.href("BinData/" + id + ".png");
+        item.mediaType("image/png");
+        item.isEmbeded(true);
+        item.createAttachedFile();
+        item.attachedFile().data(noisePng(spec.imageSide));
+
+        Picture picture = section.addNewPara().addNewRun().addNewPicture();
+        picture.createImg();
+        picture.img().binaryItemIDRef(id);
+        picture.createSZ();
+        picture.sz().width((long) spec.imageSide * HWPUNITS_PER_PIXEL);
+        picture.sz().height((long) spec.imageSide * HWPUNITS_PER_PIXEL);
+    }
+
+    /**
+     * A square PNG of random pixels; it does not compress, so its size grows with the side
+     */
+    private byte[] noisePng(int side) {
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
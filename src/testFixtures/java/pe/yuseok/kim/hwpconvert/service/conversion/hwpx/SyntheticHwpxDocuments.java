@@ -0,0 +1,68 @@
+package pe.yuseok.kim.hwpconvert.service.conversion.hwpx;
+
+import kr.dogfoot.hwpxlib.object.HWPXFile;
+
+/**
+ * Named {@link HwpxCorpusGenerator} presets for the JMH benchmarks. Paragraphs and runs
+ * reference the header properties at random, the way styled documents do.
+ */
+public final class SyntheticHwpxDocuments {
+
+    /** Roughly what fits on one A4 page of body text */
+    public static final int PARAGRAPHS_PER_PAGE = 25;
+    public static final int RUNS_PER_PARAGRAPH = 3;
+    /** Rows grouped under one merged cell in the first column of a table */
+    public static final int TABLE_GROUP_ROWS = 5;
+    /** Share of table cells that span two columns */
+    public static final double TABLE_MERGE_RATE = 0.05;
+
+    private SyntheticHwpxDocuments() {
+    }
+
+    /**
+     * @param pages Number of pages of body text
+     * @param paraShapes Number of paraPr entries in the header
+     * @param charShapes Number of charPr entries in the header
+     * @param seed Random seed, so every run builds the same document
+     */
+    public static HWPXFile build(int pages, int paraShapes, int charShapes, long seed) {
+        return HwpxCorpusGenerator.generate(new HwpxCorpusGenerator.Spec()
+                .paragraphs(pages * PARAGRAPHS_PER_PAGE)
+                .runsPerParagraph(RUNS_PER_PARAGRAPH)
+                .paraShapes(paraShapes)
+                .charShapes(charShapes)
+                .seed(seed));
+    }
+
+    /**
+     * Builds a document holding one large table, laid out like a statistical report: the first
+     * column groups rows under a vertically merged cell, and some cells span two columns
+     * @param rows Number of table rows
+     * @param cols Number of table columns
+     * @param seed Random seed, so every run builds the same document
+     */
+    public static HWPXFile buildTable(int rows, int cols, long seed) {
+        return HwpxCorpusGenerator.generate(new HwpxCorpusGenerator.Spec()
+                .paragraphs(0)
+                .tables(1)
+                .tableRows(rows)
+                .tableCols(cols)
+                .groupRows(TABLE_GROUP_ROWS)
+                .mergeRate(TABLE_MERGE_RATE)
+                .seed(seed));
+    }
+
+    /**
+     * Builds a document of pictures, one per paragraph, each embedding its own PNG image
+     * @param count Number of pictures
+     * @param side Width and height of the images in pixels
+     * @param seed Random seed, so every run builds the same document
+     */
+    public static HWPXFile buildPictures(int count, int side, long seed) {
+        return HwpxCorpusGenerator.generate(new HwpxCorpusGenerator.Spec()
+                .paragraphs(0)
+                .images(count)
+                .imageSide(side)
+                .seed(seed));
+    }
+}